@@ -1,13 +1,54 @@
 package tictactoe;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * AI player implementation that delegates move selection to a strategy.
  * Extends AbstractPlayer and allows the AI difficulty to be changed at runtime.
+ *
+ * The player can also "ponder": while the opponent is thinking, it searches
+ * its reply to each move the opponent might make on a background thread
+ * and caches the answers by position hash. When the opponent's actual move
+ * was one of those, chooseMove() returns immediately. Otherwise the
+ * speculative search in progress is interrupted, so the real search only
+ * waits for it to unwind rather than to finish.
  */
 public class AIPlayer extends AbstractPlayer {
     
     private ComputerMoveStrategy strategy;
 
+    // Strategies are not thread-safe, so searches for real moves and
+    // speculative searches take turns on this lock
+    private final ReentrantLock searchLock = new ReentrantLock();
+
+    /**
+     * Runs the pondering of every AIPlayer. Idle threads exit after a
+     * minute, so players that are replaced leave no threads behind.
+     */
+    private static final ExecutorService PONDER_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "ai-ponder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Pondering state: cached replies by position hash. Bumping the
+    // generation stops the background loop; bumping the round also
+    // discards whatever it is still computing. The round is bumped and
+    // checked while holding cacheLock, so a late reply cannot be cached
+    // after stopPondering() has cleared the cache. ponderThread is the
+    // thread running a speculative search, set and cleared under cacheLock
+    // so that an interrupt never reaches the pool thread's next task.
+    private final Map<Long, Move> ponderCache = new ConcurrentHashMap<>();
+    private final Object cacheLock = new Object();
+    private final AtomicInteger ponderGeneration = new AtomicInteger();
+    private final AtomicInteger ponderRound = new AtomicInteger();
+    private Thread ponderThread;
+
     /**
      * Creates an AI player with the specified mark and strategy.
      * @param mark the mark to use (typically O)
@@ -20,7 +61,43 @@ public class AIPlayer extends AbstractPlayer {
 
     @Override
     public Move chooseMove(Board board) {
-        return strategy.choose(board, mark);
+        Move pondered = pollPonderCache(board);
+        if (pondered != null) {
+            return pondered;
+        }
+        // The opponent has moved, so the other speculative replies are useless
+        synchronized (cacheLock) {
+            cancelPonderSearch();
+        }
+        searchLock.lock();
+        try {
+            // The background search may have just finished this very position
+            pondered = pollPonderCache(board);
+            return (pondered != null) ? pondered : strategy.choose(board, mark);
+        } finally {
+            searchLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background loop and interrupts its search. Caller holds cacheLock.
+     */
+    private void cancelPonderSearch() {
+        ponderGeneration.incrementAndGet();
+        if (ponderThread != null) {
+            ponderThread.interrupt();
+        }
+    }
+
+    /**
+     * Returns the pondered reply for this position, if there is one.
+     */
+    private Move pollPonderCache(Board board) {
+        Move pondered = ponderCache.get(board.hash());
+        if (pondered != null && board.isEmpty(pondered.getRow(), pondered.getCol())) {
+            return pondered;
+        }
+        return null;
     }
 
     @Override
@@ -28,12 +105,97 @@ public class AIPlayer extends AbstractPlayer {
         return false;
     }
 
+    /**
+     * Starts searching, in the background, this player's reply to every
+     * move the opponent could make next. Any earlier pondering is cancelled
+     * and its cache cleared.
+     * @param board the current board (copied; not modified)
+     * @param opponentMark the mark of the player about to move
+     */
+    public void startPondering(Board board, char opponentMark) {
+        stopPondering();
+        int generation = ponderGeneration.get();
+        int round = ponderRound.get();
+        Board snapshot = board.copy();
+        PONDER_EXECUTOR.execute(() -> ponder(snapshot, opponentMark, generation, round));
+    }
+
+    /**
+     * Cancels any background search and clears the cached replies.
+     */
+    public void stopPondering() {
+        synchronized (cacheLock) {
+            ponderRound.incrementAndGet();
+            cancelPonderSearch();
+            ponderCache.clear();
+        }
+    }
+
+    /**
+     * Searches the reply to each opponent move until cancelled.
+     */
+    private void ponder(Board board, char opponentMark, int generation, int round) {
+        int size = board.getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (ponderGeneration.get() != generation) {
+                    return;
+                }
+                if (board.tryPlaceMark(row, col, opponentMark) != Board.PLACED) {
+                    continue;
+                }
+                if (!board.isGameOver()) {
+                    searchLock.lock();
+                    try {
+                        ponderReply(board, generation, round);
+                    } finally {
+                        searchLock.unlock();
+                    }
+                }
+                board.undoMark();
+            }
+        }
+    }
+
+    /**
+     * Searches one reply and caches it, unless pondering was cancelled
+     * before or during the search. Caller holds searchLock.
+     */
+    private void ponderReply(Board board, int generation, int round) {
+        synchronized (cacheLock) {
+            if (ponderGeneration.get() != generation) {
+                return;
+            }
+            ponderThread = Thread.currentThread();
+        }
+        Move reply = null;
+        try {
+            reply = strategy.choose(board, mark);
+        } finally {
+            synchronized (cacheLock) {
+                ponderThread = null;
+                // An interrupted search returns a half-finished answer (or none);
+                // clearing the flag also keeps it from leaking to the pool thread
+                boolean cancelled = Thread.interrupted();
+                if (!cancelled && reply != null && ponderRound.get() == round) {
+                    ponderCache.put(board.hash(), reply);
+                }
+            }
+        }
+    }
+
     /**
      * Changes the AI strategy at runtime.
      * @param newStrategy the new strategy to use
      */
     public void setStrategy(ComputerMoveStrategy newStrategy) {
-        this.strategy = newStrategy;
+        stopPondering();
+        searchLock.lock();
+        try {
+            this.strategy = newStrategy;
+        } finally {
+            searchLock.unlock();
+        }
         this.name = "Computer (" + newStrategy.getName() + ")";
     }
 
@@ -0,0 +1,516 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Binary score storage: a log of fixed-width records plus a dictionary
+ * of player and opponent names. ScoreManager uses it instead of CSV for
+ * any file whose name ends in ".bin".
+ *
+ * The log starts with an 8-byte header (magic, version). Each 20-byte
+ * record then holds the timestamp as epoch milliseconds (taken as UTC, so
+ * local times round-trip unchanged), the player and opponent name IDs,
+ * the move count and a result code. Names live in a side file
+ * ("scores.bin.names") as length-prefixed UTF-8, the ID being the
+ * position in that file. New names are always written before the records
+ * that use them, so a reader never sees an unknown ID.
+ *
+ * Reads pull the log in large windows and scan the records in place,
+ * with no text to split and no dates to parse. The files are read rather
+ * than memory-mapped: a mapping lives until it is garbage collected, and
+ * on Windows a mapped file cannot be truncated (as open() does after a
+ * crash) or deleted (as ScoreManager.clearAll() does). main() converts an
+ * existing scores.csv.
+ */
+public class BinaryScoreLog {
+
+    /** File name ending that selects this format in ScoreManager. */
+    public static final String EXTENSION = ".bin";
+
+    /** Bytes per record. */
+    public static final int RECORD_SIZE = 20;
+
+    private static final int MAGIC = 0x54545453; // "TTTS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    // Record layout
+    private static final int TIMESTAMP = 0;
+    private static final int PLAYER = 8;
+    private static final int OPPONENT = 12;
+    private static final int MOVES = 16;
+    private static final int RESULT = 18;
+
+    /** Result codes are indexes into this array. */
+    private static final String[] RESULTS = {"WIN", "LOSS", "TIE"};
+
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    /** Entries convertCsv() writes at a time. */
+    private static final int CONVERT_BATCH = 8192;
+
+    /** Bytes of the log read at once while scanning: a whole number of records. */
+    private static final int READ_WINDOW = (1 << 14) * RECORD_SIZE;
+
+    private final Path path;
+    private final Path namesPath;
+
+    // Writing state, opened on first append
+    private FileChannel records;
+    private FileChannel names;
+    private final Map<String, Integer> nameIds = new HashMap<>();
+
+    /**
+     * Creates a log backed by the given file and its ".names" dictionary.
+     * Nothing is opened until the first append.
+     * @param path the record file
+     */
+    public BinaryScoreLog(Path path) {
+        this.path = path;
+        this.namesPath = namesPath(path);
+    }
+
+    /**
+     * Checks whether a score file should use this format.
+     * @param path the score file
+     * @return true if its name ends in ".bin"
+     */
+    public static boolean isBinaryPath(Path path) {
+        Path name = path.getFileName();
+        return name != null && name.toString().endsWith(EXTENSION);
+    }
+
+    /**
+     * Returns the dictionary file that goes with a record file.
+     * @param path the record file
+     * @return the path with ".names" appended
+     */
+    public static Path namesPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".names");
+    }
+
+    /**
+     * Returns how much of a log of the given size holds complete records,
+     * leaving out a record torn by a crash.
+     * @param size the log's size in bytes
+     * @return the size up to the end of the last complete record
+     */
+    public static long completeLength(long size) {
+        return (size <= HEADER_SIZE) ? size : HEADER_SIZE + (size - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+    }
+
+    /**
+     * Checks that an entry can be stored in a record.
+     * @param entry the entry
+     * @throws IllegalArgumentException if its result, move count or names
+     *         do not fit the format
+     */
+    public static void checkStorable(ScoreEntry entry) {
+        if (resultCode(entry.getResult()) < 0) {
+            throw new IllegalArgumentException("Result must be WIN, LOSS or TIE: " + entry.getResult());
+        }
+        if (entry.getMoveCount() < 0 || entry.getMoveCount() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Move count out of range: " + entry.getMoveCount());
+        }
+        checkName(entry.getPlayerName());
+        checkName(entry.getOpponentName());
+    }
+
+    private static void checkName(String name) {
+        if (name.getBytes(StandardCharsets.UTF_8).length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name is too long: " + name.length() + " characters");
+        }
+    }
+
+    private static int resultCode(String result) {
+        for (int i = 0; i < RESULTS.length; i++) {
+            if (RESULTS[i].equals(result)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends entries, writing any new names to the dictionary first.
+     * Not thread-safe; ScoreManager calls it from its writer thread only.
+     * @param entries the entries, each accepted by checkStorable()
+     * @param fsync true to force both files to the storage device
+     * @throws IOException if writing fails
+     */
+    void append(List<ScoreEntry> entries, boolean fsync) throws IOException {
+        open();
+        ByteBuffer recordBytes = ByteBuffer.allocate(entries.size() * RECORD_SIZE);
+        List<String> newNames = new ArrayList<>();
+        for (ScoreEntry entry : entries) {
+            int record = recordBytes.position();
+            recordBytes.putLong(record + TIMESTAMP,
+                entry.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+            recordBytes.putInt(record + PLAYER, idFor(entry.getPlayerName(), newNames));
+            recordBytes.putInt(record + OPPONENT, idFor(entry.getOpponentName(), newNames));
+            recordBytes.putShort(record + MOVES, (short) entry.getMoveCount());
+            recordBytes.put(record + RESULT, (byte) resultCode(entry.getResult()));
+            recordBytes.position(record + RECORD_SIZE);
+        }
+        recordBytes.flip();
+
+        if (!newNames.isEmpty()) {
+            writeFully(names, encodeNames(newNames));
+            if (fsync) {
+                names.force(false);
+            }
+        }
+        writeFully(records, recordBytes);
+        if (fsync) {
+            records.force(false);
+        }
+    }
+
+    /**
+     * Returns the ID for a name, assigning the next one if it is new.
+     */
+    private int idFor(String name, List<String> newNames) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = nameIds.size();
+            nameIds.put(name, id);
+            newNames.add(name);
+        }
+        return id;
+    }
+
+    private static ByteBuffer encodeNames(List<String> newNames) {
+        List<byte[]> encoded = new ArrayList<>(newNames.size());
+        int length = 0;
+        for (String name : newNames) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            length += 2 + bytes.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (byte[] bytes : encoded) {
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Opens both files for appending, writing the header to a new log.
+     * A torn record or name left by a crash is cut off so that new data
+     * starts on a boundary.
+     */
+    private void open() throws IOException {
+        if (records != null) {
+            return;
+        }
+        FileChannel recordChannel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel nameChannel = null;
+        try {
+            long size = recordChannel.size();
+            if (size == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                writeFully(recordChannel, header);
+            } else {
+                checkHeader(recordChannel);
+                long whole = completeLength(size);
+                if (whole < size) {
+                    recordChannel.truncate(whole);
+                }
+            }
+            recordChannel.position(recordChannel.size());
+
+            nameChannel = FileChannel.open(namesPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            List<String> known = new ArrayList<>();
+            long end = readNames(nameChannel, known);
+            if (end < nameChannel.size()) {
+                nameChannel.truncate(end);
+            }
+            nameChannel.position(end);
+            nameIds.clear();
+            for (String name : known) {
+                nameIds.put(name, nameIds.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            recordChannel.close();
+            if (nameChannel != null) {
+                nameChannel.close();
+            }
+            throw e;
+        }
+        records = recordChannel;
+        names = nameChannel;
+    }
+
+    private void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // Keep reading until the header is complete or the file ends
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary score log: " + path);
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported score log version " + header.getInt(4) + ": " + path);
+        }
+    }
+
+    /**
+     * Reads every complete name from a dictionary file.
+     * @return the offset just past the last complete name
+     */
+    private static long readNames(FileChannel channel, List<String> out) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return 0;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate((int) size);
+        while (bytes.hasRemaining() && channel.read(bytes, bytes.position()) >= 0) {
+            // Keep reading until the file is complete or it ends
+        }
+        size = bytes.position();
+        int position = 0;
+        while (position + 2 <= size) {
+            int length = Short.toUnsignedInt(bytes.getShort(position));
+            if (position + 2 + length > size) {
+                break; // Torn write
+            }
+            byte[] name = new byte[length];
+            bytes.get(position + 2, name);
+            out.add(new String(name, StandardCharsets.UTF_8));
+            position += 2 + length;
+        }
+        return position;
+    }
+
+    /** Receives records from scan(), with names already resolved. */
+    private interface RecordVisitor {
+        void visit(ByteBuffer log, int record, String[] names);
+    }
+
+    /**
+     * Reads the log and passes each complete record to the visitor. The
+     * log's size is taken before the dictionary is read, so every ID in
+     * the scanned records is already in the dictionary.
+     * @param from the offset of the first record to visit (at least the header size)
+     * @return the dictionary, indexed by ID (empty if there is no log yet)
+     */
+    private String[] scan(long from, RecordVisitor visitor) throws IOException {
+        if (!Files.exists(path)) {
+            return new String[0];
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return new String[0];
+            }
+            checkHeader(channel);
+            long end = completeLength(size);
+
+            List<String> nameList = new ArrayList<>();
+            if (Files.exists(namesPath)) {
+                try (FileChannel nameChannel = FileChannel.open(namesPath, StandardOpenOption.READ)) {
+                    readNames(nameChannel, nameList);
+                }
+            }
+            String[] nameArray = nameList.toArray(new String[0]);
+
+            ByteBuffer log = ByteBuffer.allocate((int) Math.max(0, Math.min(READ_WINDOW, end - from)));
+            for (long start = from; start < end; start += READ_WINDOW) {
+                log.clear();
+                log.limit((int) Math.min(READ_WINDOW, end - start));
+                while (log.hasRemaining() && channel.read(log, start + log.position()) >= 0) {
+                    // Keep reading until the window is full or the file ends
+                }
+                for (int record = 0; record + RECORD_SIZE <= log.position(); record += RECORD_SIZE) {
+                    visitor.visit(log, record, nameArray);
+                }
+                if (log.hasRemaining()) {
+                    break; // The file was cut short while we read it
+                }
+            }
+            return nameArray;
+        }
+    }
+
+    /**
+     * Reads every entry in the log.
+     * @return the entries, oldest first
+     * @throws IOException if reading fails or the file is not a score log
+     */
+    public List<ScoreEntry> readAll() throws IOException {
+        return readFrom(HEADER_SIZE);
+    }
+
+    /**
+     * Reads the entries after a given offset, which must be the start of
+     * a record (for example the file's earlier size).
+     * @param offset the offset of the first record; 0 reads from the start
+     * @return the entries, oldest first
+     * @throws IOException if reading fails or the file is not a score log
+     */
+    public List<ScoreEntry> readFrom(long offset) throws IOException {
+        if (offset != 0 && (offset < HEADER_SIZE || (offset - HEADER_SIZE) % RECORD_SIZE != 0)) {
+            throw new IllegalArgumentException("Not a record boundary: " + offset);
+        }
+        List<ScoreEntry> entries = new ArrayList<>();
+        scan(Math.max(offset, HEADER_SIZE), (log, record, nameArray) -> {
+            String player = nameAt(nameArray, log.getInt(record + PLAYER));
+            String opponent = nameAt(nameArray, log.getInt(record + OPPONENT));
+            int result = log.get(record + RESULT);
+            if (player == null || opponent == null || result < 0 || result >= RESULTS.length) {
+                return; // Damaged record
+            }
+            LocalDateTime timestamp = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(log.getLong(record + TIMESTAMP)), ZoneOffset.UTC);
+            entries.add(new ScoreEntry(player, opponent, RESULTS[result],
+                log.getShort(record + MOVES), timestamp));
+        });
+        return entries;
+    }
+
+    /**
+     * Computes the totals straight from the raw records, counting by
+     * opponent ID and only looking names up at the end.
+     * @return the totals
+     * @throws IOException if reading fails or the file is not a score log
+     */
+    public ScoreStats readStats() throws IOException {
+        // counts[0][id * 3 + result], sized once the dictionary is known
+        long[][] counts = {null};
+        String[] nameArray = scan(HEADER_SIZE, (log, record, dictionary) -> {
+            int opponent = log.getInt(record + OPPONENT);
+            int result = log.get(record + RESULT);
+            if (opponent < 0 || opponent >= dictionary.length || result < 0 || result >= RESULTS.length) {
+                return; // Damaged record
+            }
+            if (counts[0] == null) {
+                counts[0] = new long[dictionary.length * RESULTS.length];
+            }
+            counts[0][opponent * RESULTS.length + result]++;
+        });
+
+        ScoreStats stats = new ScoreStats();
+        if (counts[0] != null) {
+            for (int id = 0; id < nameArray.length; id++) {
+                int base = id * RESULTS.length;
+                long wins = counts[0][base];
+                long losses = counts[0][base + 1];
+                long ties = counts[0][base + 2];
+                if (wins + losses + ties > 0) {
+                    stats.add(nameArray[id], wins, losses, ties);
+                }
+            }
+        }
+        return stats;
+    }
+
+    private static String nameAt(String[] nameArray, int id) {
+        return (id >= 0 && id < nameArray.length) ? nameArray[id] : null;
+    }
+
+    /**
+     * Closes the files opened for appending. The next append reopens them.
+     * @throws IOException if closing fails
+     */
+    void close() throws IOException {
+        try {
+            if (records != null) {
+                records.close();
+            }
+        } finally {
+            records = null;
+            if (names != null) {
+                names.close();
+                names = null;
+            }
+        }
+    }
+
+    /**
+     * Closes and deletes both files.
+     * @throws IOException if deleting fails
+     */
+    void delete() throws IOException {
+        close();
+        nameIds.clear();
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(namesPath);
+    }
+
+    /**
+     * Copies every entry of a CSV score file into a new binary log.
+     * Rows are parsed by ScoreCsvReader, so quoted names may hold line
+     * breaks, and rows that cannot be parsed are skipped, as ScoreManager
+     * does. Entries are written in batches rather than held all at once.
+     * @param csvPath the existing scores.csv
+     * @param binaryPath the log to create; must not exist yet
+     * @return the number of entries converted
+     * @throws IOException if reading or writing fails, or the log exists
+     * @throws IllegalArgumentException if an entry cannot be stored
+     */
+    public static int convertCsv(Path csvPath, Path binaryPath) throws IOException {
+        if (Files.exists(binaryPath)) {
+            throw new FileAlreadyExistsException(binaryPath.toString());
+        }
+        int count = 0;
+        List<ScoreEntry> batch = new ArrayList<>(CONVERT_BATCH);
+        BinaryScoreLog log = new BinaryScoreLog(binaryPath);
+        try (Stream<ScoreEntry> entries = new ScoreCsvReader(csvPath).stream()) {
+            Iterator<ScoreEntry> it = entries.iterator();
+            while (it.hasNext()) {
+                ScoreEntry entry = it.next();
+                checkStorable(entry);
+                batch.add(entry);
+                if (batch.size() == CONVERT_BATCH) {
+                    log.append(batch, true);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+            log.append(batch, true); // Also creates the log when there are no entries
+            count += batch.size();
+        } finally {
+            log.close();
+        }
+        return count;
+    }
+
+    /**
+     * Converts a CSV score file to the binary format.
+     * @param args CSV path and binary path (default scores.csv, scores.bin)
+     */
+    public static void main(String[] args) throws IOException {
+        Path csv = Paths.get(args.length > 0 ? args[0] : "scores.csv");
+        Path binary = Paths.get(args.length > 1 ? args[1] : "scores" + EXTENSION);
+        int count = convertCsv(csv, binary);
+        System.out.println("Converted " + count + " entries from " + csv + " to " + binary);
+    }
+}
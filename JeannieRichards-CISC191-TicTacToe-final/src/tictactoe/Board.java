@@ -1,60 +1,241 @@
 package tictactoe;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Represents the Tic-Tac-Toe game board.
- * Maintains a 3x3 grid and provides methods for placing marks,
+ * By default this is the classic 3x3 grid with three in a row to win, but
+ * any N x N board with a K-in-a-row win condition is supported (for
+ * example 15x15 five in a row). Provides methods for placing marks,
  * checking win conditions, and determining game state.
+ *
+ * Each side's marks are stored as a bitset, where cell (row, col) is bit
+ * row * size + col. Wins are detected incrementally: placing a mark only
+ * scans the four lines through that cell, so checkWin() is a field read
+ * no matter how large the board is.
+ *
+ * Each board also carries a 64-bit Zobrist hash of its position, updated
+ * incrementally as marks are placed and undone. Boards built with the same
+ * seed always produce the same hash for the same position.
  */
 public class Board {
+    /** Size of the classic board, used by the no-argument constructors. */
     public static final int SIZE = 3;
     public static final char EMPTY = ' ';
     public static final char X = 'X';
     public static final char O = 'O';
 
-    private char[][] grid;
+    /** Result codes of tryPlaceMark(). */
+    public static final int PLACED = 0;
+    public static final int OUT_OF_BOUNDS = 1;
+    public static final int OCCUPIED = 2;
+    public static final int INVALID_MARK = 3;
 
     /**
-     * Creates a new empty board.
+     * Line directions checked from a placed mark: row, column, diagonal,
+     * anti-diagonal. Also used by MinimaxStrategy's heuristic; not modified.
+     */
+    static final int[] DIR_ROWS = {0, 1, 1, 1};
+    static final int[] DIR_COLS = {1, 0, 1, -1};
+
+    /**
+     * Cell permutations for the 8 symmetries of the classic 3x3 board (identity,
+     * rotations and reflections), applied to a whole 9-bit mask at once:
+     * SYMMETRY_MAPS[s][mask] is mask transformed by symmetry s.
+     */
+    private static final int[][] SYMMETRY_MAPS = buildSymmetryMaps();
+
+    /** Number of distinct base-3 encodings of a classic board (3^9). */
+    public static final int ENCODING_COUNT = 19683;
+
+    /** BASE3_DIGITS[mask] is the base-3 number with a 1 digit for each set bit. */
+    private static final int[] BASE3_DIGITS = buildBase3Digits();
+
+    /** Seed used for the Zobrist keys of boards created without one. */
+    public static final long DEFAULT_ZOBRIST_SEED = 0x5DEECE66DL;
+
+    private static final long[] DEFAULT_ZOBRIST_KEYS =
+        zobristKeys(DEFAULT_ZOBRIST_SEED, SIZE * SIZE);
+
+    private final int size;
+    private final int winLength;
+    private final int cells;
+
+    // One bit per cell for each side
+    private final long[] xBits;
+    private final long[] oBits;
+
+    // Zobrist keys: X keys at [0, cells), O keys at [cells, 2 * cells). Shared with copies.
+    private final long[] zobristKeys;
+    private long hash;
+
+    // Cell indices in the order they were placed, for undoMark()
+    private final int[] history;
+    private int historySize;
+
+    // For each ply, the line that move completed (see findLine()), or 0
+    private final int[] lineHistory;
+    // Number of plies in the history that completed a line, per side
+    private int xLines;
+    private int oLines;
+
+    /**
+     * Creates a new empty classic 3x3 board.
      */
     public Board() {
-        grid = new char[SIZE][SIZE];
+        this(SIZE, SIZE, DEFAULT_ZOBRIST_SEED);
+    }
+
+    /**
+     * Creates a new empty classic 3x3 board whose Zobrist keys come from the given seed.
+     * @param zobristSeed seed for the position hash keys
+     */
+    public Board(long zobristSeed) {
+        this(SIZE, SIZE, zobristSeed);
+    }
+
+    /**
+     * Creates a new empty N x N board won by K in a row.
+     * @param size the number of rows and columns
+     * @param winLength the number of marks in a row needed to win
+     */
+    public Board(int size, int winLength) {
+        this(size, winLength, DEFAULT_ZOBRIST_SEED);
+    }
+
+    /**
+     * Creates a new empty N x N board won by K in a row, whose Zobrist keys
+     * come from the given seed.
+     * @param size the number of rows and columns
+     * @param winLength the number of marks in a row needed to win
+     * @param zobristSeed seed for the position hash keys
+     */
+    public Board(int size, int winLength, long zobristSeed) {
+        if (size < 1 || size > 64) {
+            throw new IllegalArgumentException("Board size must be between 1 and 64: " + size);
+        }
+        if (winLength < 1 || winLength > size) {
+            throw new IllegalArgumentException("Win length must be between 1 and " + size + ": " + winLength);
+        }
+        this.size = size;
+        this.winLength = winLength;
+        this.cells = size * size;
+        this.xBits = new long[(cells + 63) >>> 6];
+        this.oBits = new long[xBits.length];
+        this.zobristKeys = (zobristSeed == DEFAULT_ZOBRIST_SEED && cells == SIZE * SIZE)
+            ? DEFAULT_ZOBRIST_KEYS : zobristKeys(zobristSeed, cells);
+        this.history = new int[cells];
+        this.lineHistory = new int[cells];
         reset();
     }
 
     /**
      * Private constructor for creating a copy.
      */
-    private Board(char[][] gridToCopy) {
-        grid = new char[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                grid[i][j] = gridToCopy[i][j];
-            }
-        }
+    private Board(Board other) {
+        this.size = other.size;
+        this.winLength = other.winLength;
+        this.cells = other.cells;
+        this.xBits = other.xBits.clone();
+        this.oBits = other.oBits.clone();
+        this.zobristKeys = other.zobristKeys;
+        this.hash = other.hash;
+        this.history = other.history.clone();
+        this.lineHistory = other.lineHistory.clone();
+        this.historySize = other.historySize;
+        this.xLines = other.xLines;
+        this.oLines = other.oLines;
     }
 
     /**
      * Resets the board to empty state.
      */
     public void reset() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                grid[i][j] = EMPTY;
-            }
+        Arrays.fill(xBits, 0L);
+        Arrays.fill(oBits, 0L);
+        historySize = 0;
+        xLines = 0;
+        oLines = 0;
+        hash = 0L;
+    }
+
+    /**
+     * Returns the number of rows (and columns) on this board.
+     * @return the board size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns how many marks in a row are needed to win.
+     * @return the win length
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * Checks whether this is the classic 3x3, three-in-a-row board.
+     * @return true for the classic board
+     */
+    public boolean isClassic() {
+        return size == SIZE && winLength == SIZE;
+    }
+
+    /**
+     * Generates one Zobrist key per (mark, cell) pair with SplitMix64,
+     * so the keys depend only on the seed.
+     */
+    private static long[] zobristKeys(long seed, int cells) {
+        long[] keys = new long[2 * cells];
+        long state = seed;
+        for (int i = 0; i < keys.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            keys[i] = z ^ (z >>> 31);
+        }
+        return keys;
+    }
+
+    /**
+     * Tests a cell's bit in a bitset.
+     */
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the classic board's 9-bit mask for one side.
+     */
+    private int classicMask(long[] bits) {
+        return (int) bits[0];
+    }
+
+    /**
+     * Throws if this is not the classic board; used by the 3x3-only helpers.
+     */
+    private void requireClassic() {
+        if (!isClassic()) {
+            throw new IllegalStateException("Only defined for the classic 3x3 board");
         }
     }
 
     /**
      * Returns the character at the specified position.
-     * @param row the row index (0-2)
-     * @param col the column index (0-2)
+     * @param row the row index (0 to size - 1)
+     * @param col the column index (0 to size - 1)
      * @return the mark at that position (X, O, or EMPTY)
      */
     public char getCell(int row, int col) {
-        return grid[row][col];
+        int index = row * size + col;
+        if (isSet(xBits, index)) return X;
+        if (isSet(oBits, index)) return O;
+        return EMPTY;
     }
 
     /**
@@ -62,10 +243,10 @@ public class Board {
      * @return a copy of the 2D grid array
      */
     public char[][] getGrid() {
-        char[][] copy = new char[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                copy[i][j] = grid[i][j];
+        char[][] copy = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                copy[i][j] = getCell(i, j);
             }
         }
         return copy;
@@ -78,7 +259,7 @@ public class Board {
      * @return true if valid position
      */
     public boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+        return row >= 0 && row < size && col >= 0 && col < size;
     }
 
     /**
@@ -88,7 +269,8 @@ public class Board {
      * @return true if the cell is empty
      */
     public boolean isEmpty(int row, int col) {
-        return grid[row][col] == EMPTY;
+        int index = row * size + col;
+        return !isSet(xBits, index) && !isSet(oBits, index);
     }
 
     /**
@@ -100,79 +282,335 @@ public class Board {
      * @throws InvalidMoveException if the move is invalid
      */
     public boolean placeMark(int row, int col, char mark) throws InvalidMoveException {
+        switch (tryPlaceMark(row, col, mark)) {
+            case OUT_OF_BOUNDS:
+                throw new InvalidMoveException("Position (" + row + ", " + col + ") is out of bounds.");
+            case OCCUPIED:
+                throw new InvalidMoveException("Cell (" + row + ", " + col + ") is already occupied.");
+            case INVALID_MARK:
+                throw new InvalidMoveException("Invalid mark: " + mark + ". Must be X or O.");
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Places a mark on the board if the move is valid, without throwing.
+     * This is the fast path for the AI and other callers that try many
+     * moves; placeMark() is the same check with a descriptive exception.
+     * @param row the row index
+     * @param col the column index
+     * @param mark the mark to place (X or O)
+     * @return PLACED, or OUT_OF_BOUNDS, OCCUPIED or INVALID_MARK if the
+     *         board was left unchanged
+     */
+    public int tryPlaceMark(int row, int col, char mark) {
         if (!isValidPosition(row, col)) {
-            throw new InvalidMoveException("Position (" + row + ", " + col + ") is out of bounds.");
+            return OUT_OF_BOUNDS;
         }
         if (!isEmpty(row, col)) {
-            throw new InvalidMoveException("Cell (" + row + ", " + col + ") is already occupied.");
+            return OCCUPIED;
         }
         if (mark != X && mark != O) {
-            throw new InvalidMoveException("Invalid mark: " + mark + ". Must be X or O.");
+            return INVALID_MARK;
+        }
+        int index = row * size + col;
+        long[] bits = (mark == X) ? xBits : oBits;
+        bits[index >>> 6] |= 1L << index;
+        hash ^= zobristKeys[(mark == X) ? index : cells + index];
+
+        // Only lines through the new mark can have been completed
+        int line = findLine(row, col, bits);
+        if (line != 0) {
+            if (mark == X) {
+                xLines++;
+            } else {
+                oLines++;
+            }
+        }
+        lineHistory[historySize] = line;
+        history[historySize++] = index;
+        return PLACED;
+    }
+
+    /**
+     * Looks for winLength marks in a row through (row, col) in each of the
+     * four directions.
+     * @return 0 if there is none, otherwise ((start cell << 2) | direction) + 1
+     */
+    private int findLine(int row, int col, long[] bits) {
+        for (int dir = 0; dir < DIR_ROWS.length; dir++) {
+            int dr = DIR_ROWS[dir];
+            int dc = DIR_COLS[dir];
+            int back = 0;
+            while (back + 1 < winLength && isMarked(bits, row - (back + 1) * dr, col - (back + 1) * dc)) {
+                back++;
+            }
+            int run = back + 1;
+            for (int step = 1; run < winLength && isMarked(bits, row + step * dr, col + step * dc); step++) {
+                run++;
+            }
+            if (run >= winLength) {
+                int start = (row - back * dr) * size + (col - back * dc);
+                return ((start << 2) | dir) + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks whether placing the mark on the empty cell (row, col) would
+     * complete a line, without changing the board.
+     * @param row the row index
+     * @param col the column index
+     * @param mark X or O
+     * @return true if the move would win
+     */
+    public boolean completesLine(int row, int col, char mark) {
+        if (mark == X) return findLine(row, col, xBits) != 0;
+        if (mark == O) return findLine(row, col, oBits) != 0;
+        return false;
+    }
+
+    /**
+     * Checks that (row, col) is on the board and set in the bitset.
+     */
+    private boolean isMarked(long[] bits, int row, int col) {
+        return isValidPosition(row, col) && isSet(bits, row * size + col);
+    }
+
+    /**
+     * Removes the most recently placed mark, restoring the previous position.
+     * Lets the AI search the game tree in place instead of copying the board
+     * at every node.
+     * @return true if a mark was removed, false if the board was empty
+     */
+    public boolean undoMark() {
+        if (historySize == 0) {
+            return false;
+        }
+        int index = history[--historySize];
+        long bit = 1L << index;
+        boolean completedLine = lineHistory[historySize] != 0;
+        if ((xBits[index >>> 6] & bit) != 0) {
+            xBits[index >>> 6] &= ~bit;
+            hash ^= zobristKeys[index];
+            if (completedLine) xLines--;
+        } else {
+            oBits[index >>> 6] &= ~bit;
+            hash ^= zobristKeys[cells + index];
+            if (completedLine) oLines--;
         }
-        grid[row][col] = mark;
         return true;
     }
 
+    /**
+     * Returns the Zobrist hash of the current position.
+     * The empty board hashes to 0.
+     * @return 64-bit position hash
+     */
+    public long hash() {
+        return hash;
+    }
+
     /**
      * Returns a list of all empty cells as Move objects.
+     * Search code should prefer nextEmptyCell(), which allocates nothing.
      * @return list of available moves
      */
     public List<Move> getEmptyCells() {
-        List<Move> emptyCells = new ArrayList<>();
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (grid[i][j] == EMPTY) {
-                    emptyCells.add(new Move(i, j));
-                }
+        List<Move> emptyCells = new ArrayList<>(cells - historySize);
+        for (int word = 0; word < xBits.length; word++) {
+            long empty = ~(xBits[word] | oBits[word]);
+            if (word == xBits.length - 1 && (cells & 63) != 0) {
+                empty &= (1L << cells) - 1; // drop bits past the last cell
+            }
+            while (empty != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(empty);
+                emptyCells.add(Move.of(index / size, index % size));
+                empty &= empty - 1;
             }
         }
         return emptyCells;
     }
 
+    /**
+     * Returns the first empty cell at or after the given cell index, where
+     * cell (row, col) is index row * size + col. Lets callers walk the empty
+     * cells without allocating:
+     * for (int i = board.nextEmptyCell(0); i >= 0; i = board.nextEmptyCell(i + 1))
+     * @param fromIndex the cell index to start from
+     * @return the index of the next empty cell, or -1 if there is none
+     */
+    public int nextEmptyCell(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IllegalArgumentException("Cell index cannot be negative: " + fromIndex);
+        }
+        if (fromIndex >= cells) {
+            return -1;
+        }
+        int word = fromIndex >>> 6;
+        long empty = ~(xBits[word] | oBits[word]) & (-1L << fromIndex);
+        while (true) {
+            if (empty != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(empty);
+                return (index < cells) ? index : -1;
+            }
+            if (++word == xBits.length) {
+                return -1;
+            }
+            empty = ~(xBits[word] | oBits[word]);
+        }
+    }
+
+    /**
+     * Returns the number of empty cells.
+     * @return empty cell count
+     */
+    public int getEmptyCount() {
+        return cells - historySize;
+    }
+
     /**
      * Checks if the specified mark has won.
      * @param mark the mark to check (X or O)
      * @return true if this mark has won
      */
     public boolean checkWin(char mark) {
-        // Check rows
-        for (int i = 0; i < SIZE; i++) {
-            if (grid[i][0] == mark && grid[i][1] == mark && grid[i][2] == mark) {
-                return true;
-            }
-        }
+        if (mark == X) return xLines > 0;
+        if (mark == O) return oLines > 0;
+        return false;
+    }
 
-        // Check columns
-        for (int j = 0; j < SIZE; j++) {
-            if (grid[0][j] == mark && grid[1][j] == mark && grid[2][j] == mark) {
-                return true;
+    /**
+     * Returns a key that is identical for all positions equivalent under
+     * rotation or reflection. The key is the smallest (X mask, O mask) pair
+     * over the 8 symmetries, packed as xMask << 9 | oMask.
+     * Only defined for the classic board.
+     * @return canonical position key in [0, 2^18)
+     */
+    public int canonicalKey() {
+        requireClassic();
+        int xMask = classicMask(xBits);
+        int oMask = classicMask(oBits);
+        int best = Integer.MAX_VALUE;
+        for (int[] map : SYMMETRY_MAPS) {
+            int key = (map[xMask] << (SIZE * SIZE)) | map[oMask];
+            if (key < best) {
+                best = key;
             }
         }
+        return best;
+    }
+
+    /**
+     * Returns the cells holding the given mark as a 9-bit mask, where cell
+     * (row, col) is bit row * 3 + col. Only defined for the classic board.
+     * @param mark X or O
+     * @return the mark's cells, or 0 for any other character
+     */
+    public int getMarkMask(char mark) {
+        requireClassic();
+        if (mark == X) return classicMask(xBits);
+        if (mark == O) return classicMask(oBits);
+        return 0;
+    }
+
+    /**
+     * Returns the base-3 encoding of the position: cell i contributes
+     * 3^i times 0 (empty), 1 (X) or 2 (O). Only defined for the classic board.
+     * @return encoding in [0, ENCODING_COUNT)
+     */
+    public int encode() {
+        requireClassic();
+        return BASE3_DIGITS[classicMask(xBits)] + 2 * BASE3_DIGITS[classicMask(oBits)];
+    }
 
-        // Check diagonals
-        if (grid[0][0] == mark && grid[1][1] == mark && grid[2][2] == mark) {
-            return true;
+    /**
+     * Returns the base-3 encoding of the position with X and O swapped.
+     * Only defined for the classic board.
+     * @return encoding in [0, ENCODING_COUNT)
+     */
+    public int encodeSwapped() {
+        requireClassic();
+        return BASE3_DIGITS[classicMask(oBits)] + 2 * BASE3_DIGITS[classicMask(xBits)];
+    }
+
+    /**
+     * Returns the number of cells holding the given mark.
+     * @param mark X or O
+     * @return the mark count
+     */
+    public int countMarks(char mark) {
+        long[] bits;
+        if (mark == X) {
+            bits = xBits;
+        } else if (mark == O) {
+            bits = oBits;
+        } else {
+            return 0;
         }
-        if (grid[0][2] == mark && grid[1][1] == mark && grid[2][0] == mark) {
-            return true;
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
         }
+        return count;
+    }
 
-        return false;
+    /**
+     * Builds the lookup table behind encode().
+     */
+    private static int[] buildBase3Digits() {
+        int[] digits = new int[1 << (SIZE * SIZE)];
+        for (int mask = 1; mask < digits.length; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            int power = 1;
+            for (int i = 0; i < low; i++) {
+                power *= 3;
+            }
+            digits[mask] = digits[mask & (mask - 1)] + power;
+        }
+        return digits;
     }
 
     /**
-     * Checks if the board is full (no empty cells).
-     * @return true if no moves remain
+     * Builds the lookup tables behind canonicalKey().
      */
-    public boolean isFull() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (grid[i][j] == EMPTY) {
-                    return false;
+    private static int[][] buildSymmetryMaps() {
+        int cells = SIZE * SIZE;
+        int[][] maps = new int[8][1 << cells];
+        for (int s = 0; s < 8; s++) {
+            // Where each cell lands under symmetry s
+            int[] target = new int[cells];
+            for (int r = 0; r < SIZE; r++) {
+                for (int c = 0; c < SIZE; c++) {
+                    int row = r;
+                    int col = c;
+                    for (int turn = 0; turn < (s & 3); turn++) {
+                        int rotated = col;
+                        col = SIZE - 1 - row;
+                        row = rotated;
+                    }
+                    if (s >= 4) {
+                        col = SIZE - 1 - col;
+                    }
+                    target[r * SIZE + c] = row * SIZE + col;
                 }
             }
+            for (int mask = 1; mask < maps[s].length; mask++) {
+                int low = Integer.numberOfTrailingZeros(mask);
+                maps[s][mask] = maps[s][mask & (mask - 1)] | (1 << target[low]);
+            }
         }
-        return true;
+        return maps;
+    }
+
+    /**
+     * Checks if the board is full (no empty cells).
+     * @return true if no moves remain
+     */
+    public boolean isFull() {
+        return historySize == cells;
     }
 
     /**
@@ -180,7 +618,7 @@ public class Board {
      * @return true if the game is a tie
      */
     public boolean isDraw() {
-        return isFull() && !checkWin(X) && !checkWin(O);
+        return isFull() && xLines == 0 && oLines == 0;
     }
 
     /**
@@ -188,7 +626,7 @@ public class Board {
      * @return true if game has ended
      */
     public boolean isGameOver() {
-        return checkWin(X) || checkWin(O) || isFull();
+        return xLines > 0 || oLines > 0 || isFull();
     }
 
     /**
@@ -196,41 +634,36 @@ public class Board {
      * @return X, O, or EMPTY
      */
     public char getWinner() {
-        if (checkWin(X)) return X;
-        if (checkWin(O)) return O;
+        if (xLines > 0) return X;
+        if (oLines > 0) return O;
         return EMPTY;
     }
 
     /**
      * Returns the winning line cells if there's a winner.
-     * @return array of 6 ints [r1,c1,r2,c2,r3,c3] or null if no winner
+     * @return array of 2 * winLength ints [r1,c1,r2,c2,...] (6 on the classic
+     *         board) or null if no winner
      */
     public int[] getWinningLine() {
         char winner = getWinner();
         if (winner == EMPTY) return null;
 
-        // Check rows
-        for (int i = 0; i < SIZE; i++) {
-            if (grid[i][0] == winner && grid[i][1] == winner && grid[i][2] == winner) {
-                return new int[]{i, 0, i, 1, i, 2};
+        // The first move by the winner that completed a line
+        long[] bits = (winner == X) ? xBits : oBits;
+        for (int ply = 0; ply < historySize; ply++) {
+            int line = lineHistory[ply];
+            if (line == 0 || !isSet(bits, history[ply])) {
+                continue;
             }
-        }
-
-        // Check columns
-        for (int j = 0; j < SIZE; j++) {
-            if (grid[0][j] == winner && grid[1][j] == winner && grid[2][j] == winner) {
-                return new int[]{0, j, 1, j, 2, j};
+            int start = (line - 1) >>> 2;
+            int dir = (line - 1) & 3;
+            int[] cellsInLine = new int[2 * winLength];
+            for (int i = 0; i < winLength; i++) {
+                cellsInLine[2 * i] = start / size + i * DIR_ROWS[dir];
+                cellsInLine[2 * i + 1] = start % size + i * DIR_COLS[dir];
             }
+            return cellsInLine;
         }
-
-        // Check diagonals
-        if (grid[0][0] == winner && grid[1][1] == winner && grid[2][2] == winner) {
-            return new int[]{0, 0, 1, 1, 2, 2};
-        }
-        if (grid[0][2] == winner && grid[1][1] == winner && grid[2][0] == winner) {
-            return new int[]{0, 2, 1, 1, 2, 0};
-        }
-
         return null;
     }
 
@@ -239,7 +672,7 @@ public class Board {
      * @return a new Board with the same state
      */
     public Board copy() {
-        return new Board(this.grid);
+        return new Board(this);
     }
 
     /**
@@ -247,28 +680,21 @@ public class Board {
      * @return number of X and O marks on the board
      */
     public int getMoveCount() {
-        int count = 0;
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (grid[i][j] != EMPTY) {
-                    count++;
-                }
-            }
-        }
-        return count;
+        return historySize;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < SIZE; i++) {
+        for (int i = 0; i < size; i++) {
             sb.append(" ");
-            for (int j = 0; j < SIZE; j++) {
-                sb.append(grid[i][j] == EMPTY ? "-" : grid[i][j]);
-                if (j < SIZE - 1) sb.append(" | ");
+            for (int j = 0; j < size; j++) {
+                char cell = getCell(i, j);
+                sb.append(cell == EMPTY ? "-" : cell);
+                if (j < size - 1) sb.append(" | ");
             }
             sb.append("\n");
-            if (i < SIZE - 1) sb.append("-----------\n");
+            if (i < size - 1) sb.append("-".repeat(4 * size - 1)).append("\n");
         }
         return sb.toString();
     }
@@ -14,6 +14,51 @@ public interface ComputerMoveStrategy {
      */
     Move choose(Board board, char mark);
 
+    /**
+     * Chooses a move within a time budget, returning the best move found
+     * so far when the budget runs out. Strategies that cannot trade
+     * strength for time simply make their normal choice, which for the
+     * bundled ones is fast enough to fit any reasonable budget.
+     * @param board the current game board
+     * @param mark the mark to play
+     * @param timeBudgetMillis the time allowed for this move, in milliseconds
+     * @return the chosen Move
+     */
+    default Move choose(Board board, char mark, long timeBudgetMillis) {
+        return choose(board, mark);
+    }
+
+    /**
+     * Chooses a move for each of many boards in one call, so a caller with
+     * many pending AI turns (like NioGameGateway) pays the strategy's setup
+     * once per batch instead of once per board. The default simply calls
+     * choose() for each board.
+     * @param boards the boards to move on
+     * @param marks the mark to play on each board
+     * @param moves receives the chosen Move for each board
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    default void chooseBatch(Board[] boards, char[] marks, Move[] moves) {
+        checkBatch(boards, marks, moves);
+        for (int i = 0; i < boards.length; i++) {
+            moves[i] = choose(boards[i], marks[i]);
+        }
+    }
+
+    /**
+     * Checks the arguments of chooseBatch(), for strategies that override it.
+     * @param boards the boards to move on
+     * @param marks the mark to play on each board
+     * @param moves receives the chosen Move for each board
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    static void checkBatch(Board[] boards, char[] marks, Move[] moves) {
+        if (marks.length != boards.length || moves.length != boards.length) {
+            throw new IllegalArgumentException("Batch arrays differ in length: "
+                + boards.length + " boards, " + marks.length + " marks, " + moves.length + " moves");
+        }
+    }
+
     /**
      * Returns a display name for this strategy.
      * @return the strategy name (e.g., "Easy", "Smart")
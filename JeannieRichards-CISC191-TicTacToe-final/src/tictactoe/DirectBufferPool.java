@@ -0,0 +1,79 @@
+package tictactoe;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * A pool of equally sized direct ByteBuffers, carved out of one large
+ * allocation up front. Direct buffers let socket reads and writes skip
+ * the JDK's copy through a temporary native buffer, but they are slow to
+ * allocate and free, so connections borrow them from here and give them
+ * back when they close.
+ *
+ * Not thread-safe: each NioGameGateway event loop owns its own pool.
+ */
+public class DirectBufferPool {
+
+    private final int bufferSize;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private int allocated;
+
+    /**
+     * Creates a pool with the given number of buffers preallocated.
+     * @param bufferSize the capacity of each buffer in bytes
+     * @param initialCount how many buffers to carve out up front
+     */
+    public DirectBufferPool(int bufferSize, int initialCount) {
+        if (bufferSize < 1 || initialCount < 0) {
+            throw new IllegalArgumentException("Invalid pool size: " + initialCount + " x " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        if (initialCount > 0) {
+            ByteBuffer slab = ByteBuffer.allocateDirect(bufferSize * initialCount);
+            for (int i = 0; i < initialCount; i++) {
+                slab.limit((i + 1) * bufferSize).position(i * bufferSize);
+                free.push(slab.slice());
+            }
+            allocated = initialCount;
+        }
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, allocating one if it is empty.
+     * @return a buffer with position 0 and limit equal to its capacity
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            allocated++;
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool.
+     * @param buffer a buffer obtained from acquire()
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || !buffer.isDirect()) {
+            throw new IllegalArgumentException("Buffer does not belong to this pool");
+        }
+        buffer.clear();
+        free.push(buffer);
+    }
+
+    /**
+     * @return the number of buffers currently in the pool
+     */
+    public int getFreeCount() {
+        return free.size();
+    }
+
+    /**
+     * @return the number of buffers this pool has created
+     */
+    public int getAllocatedCount() {
+        return allocated;
+    }
+}
@@ -0,0 +1,94 @@
+package tictactoe;
+
+/**
+ * Says when ScoreManager's background writer commits queued score entries
+ * to disk, and whether it forces them to the storage device (fsync).
+ *
+ * With everyEntry(), append() returns only once its entry is written;
+ * entries that arrive while a write is in progress are committed
+ * together in the next one. With the batched policies, append() returns
+ * as soon as the entry is queued, and queued entries are written when
+ * the batch fills up or the interval passes, and always on close().
+ */
+public class DurabilityPolicy {
+
+    private final int maxEntries;
+    private final long maxDelayMillis;
+    private final boolean fsync;
+
+    private DurabilityPolicy(int maxEntries, long maxDelayMillis, boolean fsync) {
+        this.maxEntries = maxEntries;
+        this.maxDelayMillis = maxDelayMillis;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Writes each entry before append() returns.
+     * @param fsync true to also force it to the storage device
+     * @return the policy
+     */
+    public static DurabilityPolicy everyEntry(boolean fsync) {
+        return new DurabilityPolicy(1, 0, fsync);
+    }
+
+    /**
+     * Writes queued entries once there are at least n of them.
+     * @param n the batch size
+     * @param fsync true to force each batch to the storage device
+     * @return the policy
+     */
+    public static DurabilityPolicy everyEntries(int n, boolean fsync) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + n);
+        }
+        return new DurabilityPolicy(n, 0, fsync);
+    }
+
+    /**
+     * Writes queued entries at most the given time after the first of them arrived.
+     * @param millis the longest an entry may wait, in milliseconds
+     * @param fsync true to force each batch to the storage device
+     * @return the policy
+     */
+    public static DurabilityPolicy everyMillis(long millis, boolean fsync) {
+        if (millis < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1 ms: " + millis);
+        }
+        return new DurabilityPolicy(Integer.MAX_VALUE, millis, fsync);
+    }
+
+    /**
+     * @return how many queued entries trigger a write
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return the longest an entry waits before being written, or 0 for no limit
+     */
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    /**
+     * @return true if each write is forced to the storage device
+     */
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    /**
+     * @return true if append() waits for its entry to be written
+     */
+    public boolean isSynchronous() {
+        return maxEntries == 1;
+    }
+
+    @Override
+    public String toString() {
+        String when = isSynchronous() ? "every entry"
+            : (maxDelayMillis > 0) ? "every " + maxDelayMillis + " ms" : "every " + maxEntries + " entries";
+        return "DurabilityPolicy(" + when + (fsync ? ", fsync" : "") + ")";
+    }
+}
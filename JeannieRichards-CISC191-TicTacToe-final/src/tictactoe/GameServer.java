@@ -0,0 +1,474 @@
+package tictactoe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hosts many games at once over a line-based protocol on a loopback TCP
+ * port, as an alternative entry point to the Swing TicTacToeFrame.
+ *
+ * Each connection gets its own thread: a virtual thread when the JVM has
+ * them (Java 21+), otherwise a pooled platform thread. AI moves run on a
+ * bounded compute pool sized to the cores, so a flood of requests queues
+ * up or is turned away instead of oversubscribing the CPU. Games live in
+ * a SessionRegistry and outlive their connection until they go idle.
+ *
+ * Protocol: one command per line, one reply line per command. The human
+ * plays X; boards are 9 characters (X, O or '.') in row-major order.
+ * <pre>
+ * NEW [easy|medium|hard]  start a game            OK id board state
+ * RESUME id               continue a game          OK id board state
+ * MOVE row col            play, then AI replies    OK id board state [aiRow aiCol]
+ * BOARD                   show the current game    OK id board state [aiRow aiCol]
+ * RESET                   start over, same AI      OK id board state
+ * QUIT                    close the connection     BYE
+ * </pre>
+ * State is PLAYING (your move), THINKING (the AI is busy; send BOARD to
+ * retry), or WIN, LOSS or TIE. Errors reply "ERR message".
+ */
+public class GameServer {
+
+    /** Port used by main() when none is given. */
+    public static final int DEFAULT_PORT = 9191;
+
+    /** Longest accepted command line; longer lines close the connection. */
+    private static final int MAX_LINE_LENGTH = 256;
+
+    private static final int ACCEPT_BACKLOG = 1024;
+
+    /** Longest wait for an AI move before the client is told to retry. */
+    private static final long AI_TIMEOUT_MILLIS = 2000;
+
+    private final int port;
+    private final SessionRegistry registry;
+    private final ThreadPoolExecutor aiPool;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private ExecutorService connectionExecutor;
+    private boolean virtualThreads;
+    private ServerSocket serverSocket;
+
+    /**
+     * Creates a server with one AI thread per core, room for 4096 queued
+     * AI moves, and a 5 minute session idle timeout.
+     * @param port the port to listen on, or 0 for any free port
+     */
+    public GameServer(int port) {
+        this(port, Runtime.getRuntime().availableProcessors(), 4096, TimeUnit.MINUTES.toMillis(5));
+    }
+
+    /**
+     * Creates a server.
+     * @param port the port to listen on, or 0 for any free port
+     * @param aiThreads threads computing AI moves
+     * @param aiQueueCapacity AI moves that may wait for a thread before
+     *                        new ones are turned away
+     * @param idleTimeoutMillis how long sessions and connections may sit idle
+     */
+    public GameServer(int port, int aiThreads, int aiQueueCapacity, long idleTimeoutMillis) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        if (aiThreads < 1 || aiQueueCapacity < 1) {
+            throw new IllegalArgumentException("AI pool needs at least one thread and one queue slot");
+        }
+        this.port = port;
+        this.registry = new SessionRegistry(idleTimeoutMillis);
+        this.aiPool = new ThreadPoolExecutor(aiThreads, aiThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(aiQueueCapacity), daemonThreads("ai-compute"));
+    }
+
+    /**
+     * Starts listening on the loopback interface and accepting connections.
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalStateException if the server was already started
+     */
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        serverSocket = new ServerSocket(port, ACCEPT_BACKLOG, InetAddress.getLoopbackAddress());
+        connectionExecutor = newConnectionExecutor();
+        Thread acceptThread = new Thread(this::acceptLoop, "game-server-accept");
+        acceptThread.start();
+    }
+
+    /**
+     * Returns an executor with one virtual thread per task when the JVM
+     * supports them, looked up reflectively so the code still builds and
+     * runs on Java 17; otherwise a cached pool of platform threads.
+     */
+    private ExecutorService newConnectionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            virtualThreads = true;
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            // Before Java 21 (or without preview features on 19-20)
+            virtualThreads = false;
+            return Executors.newCachedThreadPool(daemonThreads("game-connection"));
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                try {
+                    connectionExecutor.execute(() -> serve(socket));
+                } catch (RejectedExecutionException e) {
+                    closeQuietly(socket); // Shutting down
+                }
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads commands from one client until it quits, goes idle or disconnects.
+     */
+    private void serve(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, registry.getIdleTimeoutMillis()));
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            Writer out = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+            Connection connection = new Connection();
+            StringBuilder line = new StringBuilder();
+            while (true) {
+                String reply;
+                boolean close;
+                try {
+                    String request = readLine(in, line);
+                    if (request == null) {
+                        break;
+                    }
+                    reply = connection.handle(request.trim());
+                    close = reply.equals("BYE");
+                } catch (ProtocolException e) {
+                    reply = "ERR " + e.getMessage();
+                    close = true;
+                }
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+                if (close) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away or stayed idle past the timeout
+        } finally {
+            connections.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Reads one line of at most MAX_LINE_LENGTH characters.
+     * @return the line without its terminator, or null at end of stream
+     * @throws ProtocolException if the line is too long
+     */
+    private static String readLine(InputStream in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        while (true) {
+            int b = in.read();
+            if (b < 0) {
+                return (line.length() == 0) ? null : line.toString();
+            }
+            if (b == '\n') {
+                if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                    line.setLength(line.length() - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() >= MAX_LINE_LENGTH) {
+                throw new ProtocolException("Line too long");
+            }
+            line.append((char) b);
+        }
+    }
+
+    /**
+     * Protocol state for one connection: the session it is playing.
+     */
+    private class Connection {
+        private GameSession session;
+
+        String handle(String request) {
+            String[] parts = request.split("\\s+");
+            String command = parts[0].toUpperCase(Locale.ROOT);
+            switch (command) {
+                case "NEW":
+                    ComputerMoveStrategy strategy = strategyFor(parts.length > 1 ? parts[1] : "medium");
+                    if (strategy == null) {
+                        return "ERR Unknown difficulty: " + parts[1];
+                    }
+                    session = registry.create(parts.length > 1 ? parts[1] : "medium", strategy);
+                    return reply(session, null);
+                case "RESUME":
+                    if (parts.length != 2) {
+                        return "ERR Usage: RESUME id";
+                    }
+                    GameSession resumed;
+                    try {
+                        resumed = registry.get(Long.parseLong(parts[1]));
+                    } catch (NumberFormatException e) {
+                        return "ERR Invalid session id: " + parts[1];
+                    }
+                    if (resumed == null) {
+                        return "ERR Unknown or expired session: " + parts[1];
+                    }
+                    session = resumed;
+                    session.getLock().lock();
+                    try {
+                        return reply(session, null);
+                    } finally {
+                        session.getLock().unlock();
+                    }
+                case "QUIT":
+                    return "BYE";
+                case "":
+                    return "ERR Empty command";
+                default:
+                    break;
+            }
+
+            if (!command.equals("MOVE") && !command.equals("BOARD") && !command.equals("RESET")) {
+                return "ERR Unknown command: " + command;
+            }
+            if (session == null || registry.get(session.getId()) == null) {
+                session = null;
+                return "ERR No game in progress; send NEW or RESUME";
+            }
+            // Not synchronized: playAITurn() blocks, which would pin a virtual thread
+            session.getLock().lock();
+            try {
+                switch (command) {
+                    case "MOVE":
+                        if (parts.length != 3) {
+                            return "ERR Usage: MOVE row col";
+                        }
+                        try {
+                            return move(session, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                        } catch (NumberFormatException e) {
+                            return "ERR Row and column must be numbers";
+                        }
+                    case "RESET":
+                        session.getGame().reset();
+                        return reply(session, null);
+                    default: // BOARD
+                        return reply(session, playAITurn(session));
+                }
+            } finally {
+                session.getLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Plays the human's move and the AI's reply. Caller holds the session lock.
+     */
+    private String move(GameSession session, int row, int col) {
+        TicTacToeGame game = session.getGame();
+        if (game.isGameOver()) {
+            return "ERR Game is already over.";
+        }
+        if (!game.isHumanTurn() && playAITurn(session) == null) {
+            return "ERR Not your turn!";
+        }
+        if (game.isGameOver()) {
+            return reply(session, null); // The pending AI move ended the game
+        }
+
+        // Validate up front so bad input never reaches the exception path
+        Board board = game.getBoard();
+        int status = !board.isValidPosition(row, col) ? Board.OUT_OF_BOUNDS
+            : !board.isEmpty(row, col) ? Board.OCCUPIED : Board.PLACED;
+        if (status != Board.PLACED) {
+            return "ERR " + InvalidMoveException.forStatus(status).getMessage();
+        }
+        try {
+            game.applyHumanMove(row, col);
+        } catch (InvalidMoveException e) {
+            return "ERR " + e.getMessage();
+        }
+        return reply(session, playAITurn(session));
+    }
+
+    /**
+     * Computes and applies the AI's move on the compute pool, if it is the
+     * AI's turn. Caller holds the session lock.
+     * @return the AI's move, or null if it did not move (not its turn, the
+     *         pool is full, or it took too long)
+     */
+    private Move playAITurn(GameSession session) {
+        TicTacToeGame game = session.getGame();
+        if (game.isGameOver() || game.isHumanTurn()) {
+            return null;
+        }
+        Board snapshot = game.getBoard().copy();
+        AIPlayer ai = session.getAIPlayer();
+        Future<Move> future;
+        try {
+            future = aiPool.submit(() -> ai.chooseMove(snapshot));
+        } catch (RejectedExecutionException e) {
+            return null; // Overloaded: the client sees THINKING and retries
+        }
+        try {
+            return game.applyAIMove(future.get(AI_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | InvalidMoveException e) {
+            System.err.println("AI move failed in session " + session.getId() + ": " + e);
+            return null;
+        }
+    }
+
+    private static String reply(GameSession session, Move aiMove) {
+        String reply = "OK " + session.getId() + " " + session.boardString() + " " + session.state();
+        if (aiMove != null) {
+            reply += " " + aiMove.getRow() + " " + aiMove.getCol();
+        }
+        return reply;
+    }
+
+    /**
+     * Maps a numeric difficulty code, as used by NioGameGateway, to its name.
+     * @return "easy" (0), "medium" (1), "hard" (2), or null for other codes
+     */
+    static String difficultyName(int code) {
+        switch (code) {
+            case 0:
+                return "easy";
+            case 1:
+                return "medium";
+            case 2:
+                return "hard";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Maps a difficulty name to a new strategy.
+     * @return the strategy, or null for an unknown name
+     */
+    static ComputerMoveStrategy strategyFor(String difficulty) {
+        switch (difficulty.toLowerCase(Locale.ROOT)) {
+            case "easy":
+                return new RandomMoveStrategy();
+            case "medium":
+                return new SmartMoveStrategy();
+            case "hard":
+                return new PerfectPlayStrategy();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return the port the server is listening on, or -1 before start()
+     */
+    public synchronized int getPort() {
+        return (serverSocket == null) ? -1 : serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return true if connections are served on virtual threads
+     */
+    public synchronized boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return the number of open client connections
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * @return the registry holding the server's sessions
+     */
+    public SessionRegistry getSessionRegistry() {
+        return registry;
+    }
+
+    /**
+     * Stops accepting connections, disconnects all clients and drops all sessions.
+     */
+    public synchronized void close() {
+        if (serverSocket != null) {
+            closeQuietly(serverSocket);
+            connectionExecutor.shutdownNow();
+        }
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        aiPool.shutdownNow();
+        registry.close();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing useful to do
+        }
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     * @param args optional port (default 9191)
+     */
+    public static void main(String[] args) throws IOException {
+        GameServer server = new GameServer(args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "game-server-shutdown"));
+        System.out.println("Tic-Tac-Toe server listening on " + InetAddress.getLoopbackAddress().getHostAddress()
+            + ":" + server.getPort() + (server.isUsingVirtualThreads() ? " (virtual threads)" : ""));
+    }
+}
@@ -0,0 +1,114 @@
+package tictactoe;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One hosted game: a TicTacToeGame against an AI opponent, plus the
+ * bookkeeping GameServer and SessionRegistry need. The human plays X.
+ *
+ * Callers hold the session's lock while reading or changing its game,
+ * since a client may reconnect to it from another connection. It is a
+ * ReentrantLock rather than the session's monitor so that a virtual
+ * thread waiting for the AI while holding it does not pin its carrier.
+ */
+public class GameSession {
+
+    private final long id;
+    private final String difficulty;
+    private final AIPlayer aiPlayer;
+    private final TicTacToeGame game;
+    private volatile long lastActiveMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Creates a session with a new game.
+     * @param id the session's key in the registry
+     * @param difficulty the difficulty name the client asked for
+     * @param strategy the AI's strategy
+     */
+    GameSession(long id, String difficulty, ComputerMoveStrategy strategy) {
+        this.id = id;
+        this.difficulty = difficulty;
+        this.aiPlayer = new AIPlayer(TicTacToeGame.AI_MARK, strategy);
+        this.game = new TicTacToeGame(aiPlayer);
+        touch();
+    }
+
+    /**
+     * @return the session id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return the difficulty name the session was created with
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * @return the session's game
+     */
+    public TicTacToeGame getGame() {
+        return game;
+    }
+
+    /**
+     * @return the AI opponent
+     */
+    public AIPlayer getAIPlayer() {
+        return aiPlayer;
+    }
+
+    /**
+     * @return the lock guarding the session's game
+     */
+    ReentrantLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Marks the session as used now, postponing its idle eviction.
+     */
+    void touch() {
+        lastActiveMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * @return when the session was last used, in epoch milliseconds
+     */
+    public long getLastActiveMillis() {
+        return lastActiveMillis;
+    }
+
+    /**
+     * Returns the board as one character per cell in row-major order:
+     * X, O or '.' for empty.
+     * @return the board string
+     */
+    public String boardString() {
+        Board board = game.getBoard();
+        StringBuilder sb = new StringBuilder(board.getSize() * board.getSize());
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                char cell = board.getCell(row, col);
+                sb.append(cell == Board.EMPTY ? '.' : cell);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the game state from the human's side: PLAYING (human to
+     * move), THINKING (AI to move), or WIN, LOSS or TIE once it is over.
+     * @return the state name
+     */
+    public String state() {
+        if (game.isGameOver()) {
+            return game.getGameResult();
+        }
+        return game.isHumanTurn() ? "PLAYING" : "THINKING";
+    }
+}
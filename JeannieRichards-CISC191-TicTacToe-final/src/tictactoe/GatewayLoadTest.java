@@ -0,0 +1,252 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for NioGameGateway: one thread drives many loopback clients
+ * through complete games over non-blocking sockets, then reports how the
+ * games ended, any protocol errors, and the request round-trip latency.
+ *
+ * Each client starts a game at difficulty (client number % 3), so every
+ * strategy's chooseBatch() is exercised, and plays a random empty cell
+ * until the game is over. Every response must carry the request's opcode,
+ * STATUS_OK, and a state of STATE_PLAYING or a finished game. The AI's
+ * reply, which the gateway gets from chooseBatch(), must be one of O's
+ * marks, and the hard AI (PerfectPlayStrategy) must never lose.
+ */
+public class GatewayLoadTest {
+
+    private final int port;
+    private final int clients;
+    private final SplittableRandom random;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private int wins;
+    private int losses;
+    private int ties;
+    private int errors;
+    private int timedOut;
+    private long elapsedNanos;
+
+    /**
+     * Creates a load test against a running gateway.
+     * @param port the gateway's loopback port
+     * @param clients the number of concurrent clients
+     * @param seed the seed for the clients' moves
+     */
+    public GatewayLoadTest(int port, int clients, long seed) {
+        if (clients < 1) {
+            throw new IllegalArgumentException("Need at least one client: " + clients);
+        }
+        this.port = port;
+        this.clients = clients;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Connects every client and plays until all games are over or the
+     * timeout runs out. Clients still playing then count as timed out.
+     * @param timeoutMillis how long to wait for the games
+     * @throws IOException if the clients cannot connect
+     */
+    public void run(long timeoutMillis) throws IOException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        List<Client> all = new ArrayList<>(clients);
+        int open = 0;
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < clients; i++) {
+                SocketChannel channel = SocketChannel.open();
+                Client client = new Client(channel, i % 3);
+                all.add(client);
+                channel.configureBlocking(false);
+                if (channel.connect(address)) {
+                    client.key = channel.register(selector, 0, client);
+                    send(client, NioGameGateway.OP_NEW, client.difficulty);
+                } else {
+                    client.key = channel.register(selector, SelectionKey.OP_CONNECT, client);
+                }
+                open++;
+            }
+
+            while (open > 0 && System.nanoTime() < deadline) {
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Client client = (Client) key.attachment();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isConnectable()) {
+                            client.channel.finishConnect();
+                            send(client, NioGameGateway.OP_NEW, client.difficulty);
+                        } else if (key.isWritable()) {
+                            flush(client);
+                        } else if (key.isReadable() && receive(client)) {
+                            client.channel.close();
+                            open--;
+                        }
+                    } catch (IOException e) {
+                        errors++;
+                        client.channel.close();
+                        open--;
+                    }
+                }
+            }
+        } finally {
+            for (Client client : all) {
+                if (client.channel.isOpen()) {
+                    timedOut++;
+                    client.channel.close();
+                }
+            }
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Reads the client's response, if it is complete, and sends its next move.
+     * @return true if the client is finished (game over or an error)
+     */
+    private boolean receive(Client client) throws IOException {
+        if (client.channel.read(client.response) < 0) {
+            errors++;
+            return true;
+        }
+        if (client.response.hasRemaining()) {
+            return false;
+        }
+        latency.record(System.nanoTime() - client.sentNanos);
+        ByteBuffer response = client.response;
+        byte state = response.get(2);
+        if (response.get(0) != client.request.get(0) || response.get(1) != NioGameGateway.STATUS_OK) {
+            errors++;
+            return true;
+        }
+        int xMask = response.getShort(4);
+        int oMask = response.getShort(6);
+        int aiCell = response.get(3) & 0xFF;
+        if ((xMask & oMask) != 0
+                || (aiCell != (NioGameGateway.NO_CELL & 0xFF) && (oMask & (1 << aiCell)) == 0)) {
+            errors++; // The AI's reply was not placed as reported
+            return true;
+        }
+        switch (state) {
+            case NioGameGateway.STATE_WIN:
+                wins++;
+                if (client.difficulty == 2) {
+                    errors++; // Perfect play never loses
+                }
+                return true;
+            case NioGameGateway.STATE_LOSS:
+                losses++;
+                return true;
+            case NioGameGateway.STATE_TIE:
+                ties++;
+                return true;
+            case NioGameGateway.STATE_PLAYING:
+                break;
+            default:
+                errors++;
+                return true;
+        }
+
+        // Play a random empty cell
+        int empty = ~(xMask | oMask) & 0x1FF;
+        int pick = random.nextInt(Integer.bitCount(empty));
+        for (int i = 0; i < pick; i++) {
+            empty &= empty - 1;
+        }
+        send(client, NioGameGateway.OP_MOVE, Integer.numberOfTrailingZeros(empty));
+        return false;
+    }
+
+    private void send(Client client, byte opcode, int argument) throws IOException {
+        client.request.clear();
+        client.request.put(opcode).put((byte) argument).flip();
+        client.response.clear();
+        client.sentNanos = System.nanoTime();
+        flush(client);
+    }
+
+    /**
+     * Writes what is left of the request, then waits for the response,
+     * or for the socket to become writable again.
+     */
+    private void flush(Client client) throws IOException {
+        client.channel.write(client.request);
+        client.key.interestOps(client.request.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    /**
+     * @return true if every game finished without errors
+     */
+    public boolean passed() {
+        return errors == 0 && timedOut == 0 && wins + losses + ties == clients;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d clients: %d games (%d wins, %d losses, %d ties) in %d ms, "
+                + "%d errors, %d timed out%n"
+                + "%d requests: p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+            clients, wins + losses + ties, wins, losses, ties, elapsedNanos / 1_000_000,
+            errors, timedOut, latency.getCount(), latency.percentile(50) / 1e6,
+            latency.percentile(99) / 1e6, latency.getMax() / 1e6);
+    }
+
+    /**
+     * One client's socket and its request in flight.
+     */
+    private static final class Client {
+        final SocketChannel channel;
+        final int difficulty;
+        final ByteBuffer request = ByteBuffer.allocate(2);
+        final ByteBuffer response = ByteBuffer.allocate(NioGameGateway.RESPONSE_SIZE);
+        SelectionKey key;
+        long sentNanos;
+
+        Client(SocketChannel channel, int difficulty) {
+            this.channel = channel;
+            this.difficulty = difficulty;
+        }
+    }
+
+    /**
+     * Starts a gateway on a free port, runs the load test against it and
+     * prints the result. Exits with status 1 if any game failed.
+     * @param args optional client count (default 2000) and number of
+     *             event loops (default 2)
+     */
+    public static void main(String[] args) throws IOException {
+        int clients = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        int loops = (args.length > 1) ? Integer.parseInt(args[1]) : 2;
+        NioGameGateway gateway = new NioGameGateway(0, loops);
+        gateway.start();
+        GatewayLoadTest test = new GatewayLoadTest(gateway.getPort(), clients, System.nanoTime());
+        try {
+            test.run(60_000);
+        } finally {
+            gateway.close();
+        }
+        System.out.println(loops + " event loops, " + test);
+        if (!test.passed()) {
+            System.exit(1);
+        }
+    }
+}
@@ -6,6 +6,14 @@ package tictactoe;
  * or moves made when it's not the player's turn.
  */
 public class InvalidMoveException extends Exception {
+
+    // Shared stackless instances, one per Board.tryPlaceMark() failure code
+    private static final InvalidMoveException OUT_OF_BOUNDS =
+        new InvalidMoveException("Position is out of bounds.", false);
+    private static final InvalidMoveException OCCUPIED =
+        new InvalidMoveException("Cell is already occupied.", false);
+    private static final InvalidMoveException INVALID_MARK =
+        new InvalidMoveException("Invalid mark. Must be X or O.", false);
     
     /**
      * Creates a new InvalidMoveException with the specified message.
@@ -14,4 +22,35 @@ public class InvalidMoveException extends Exception {
     public InvalidMoveException(String message) {
         super(message);
     }
+
+    /**
+     * Creates a new InvalidMoveException, optionally without a stack trace.
+     * Stackless exceptions are cheap to create and safe to share, since
+     * they carry no state beyond their message.
+     * @param message description of why the move is invalid
+     * @param stackTrace false to skip recording the stack trace
+     */
+    public InvalidMoveException(String message, boolean stackTrace) {
+        super(message, null, stackTrace, stackTrace);
+    }
+
+    /**
+     * Returns a shared, preallocated exception for a failed placement.
+     * Used where invalid moves may arrive often (for example from network
+     * clients) and the position in the message is not needed.
+     * @param status a failure code from Board.tryPlaceMark()
+     * @return the shared exception for that code
+     */
+    public static InvalidMoveException forStatus(int status) {
+        switch (status) {
+            case Board.OUT_OF_BOUNDS:
+                return OUT_OF_BOUNDS;
+            case Board.OCCUPIED:
+                return OCCUPIED;
+            case Board.INVALID_MARK:
+                return INVALID_MARK;
+            default:
+                throw new IllegalArgumentException("Not a failure code: " + status);
+        }
+    }
 }
@@ -0,0 +1,116 @@
+package tictactoe;
+
+/**
+ * Records durations (in nanoseconds) into logarithmic buckets so that
+ * percentiles can be reported for millions of samples in constant memory.
+ * Each power of two is split into 8 buckets, so a reported percentile is
+ * at most about 12% above the true value.
+ *
+ * Not thread-safe: give each thread its own histogram and merge() them
+ * at the end.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * Records one duration. Negative values are recorded as 0.
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all samples from another histogram to this one.
+     * @param other the histogram to add
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the value below which the given percentage of samples fall.
+     * @param percent a percentage between 0 and 100, such as 99.9
+     * @return the percentile in nanoseconds, or 0 if nothing was recorded
+     */
+    public long percentile(double percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Percent must be between 0 and 100: " + percent);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percent / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= target) {
+                return Math.min(upperBound(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the number of samples recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean sample in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return (count == 0) ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @return the largest sample in nanoseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Values below 8 get a bucket each; above that, each power of two
+     * [2^e, 2^(e+1)) is split into 8 equal buckets.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket.
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long bound = ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        return (bound < 0) ? Long.MAX_VALUE : bound;
+    }
+}
@@ -0,0 +1,245 @@
+package tictactoe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Per-player records and Elo ratings for every name in the score history.
+ * Both sides of each game are rated: the player scores 1, 0.5 or 0 for a
+ * win, tie or loss, and the opponent the reverse. Games a player logged
+ * against themselves are not rated.
+ *
+ * Players are kept in a TreeSet ordered by rating, so top(k) walks the
+ * first k entries instead of sorting everyone. A player is taken out of
+ * the set before their rating changes and put back afterwards.
+ *
+ * ScoreManager saves the leaderboard to a checkpoint file together with
+ * how much of the score log it covers, so on the next start only the
+ * games added since then are replayed. All methods are thread-safe.
+ */
+public class Leaderboard {
+
+    /** Rating of a player's first game. */
+    public static final double INITIAL_RATING = 1500;
+
+    /** Largest rating change from a single game. */
+    public static final double K_FACTOR = 32;
+
+    private static final int MAGIC = 0x5454544C; // "TTTL"
+    private static final int VERSION = 1;
+
+    /** How many bytes before the covered size the checkpoint fingerprints. */
+    private static final int FINGERPRINT_BYTES = 256;
+
+    /** Highest rating first; ties broken by name so the order is total. */
+    private static final Comparator<PlayerStanding> RANKING =
+        Comparator.comparingDouble(PlayerStanding::getRating).reversed()
+            .thenComparing(PlayerStanding::getName);
+
+    private final Map<String, PlayerStanding> players = new HashMap<>();
+    private final TreeSet<PlayerStanding> ranking = new TreeSet<>(RANKING);
+
+    /**
+     * Rates one game for both sides. Self-play entries are skipped.
+     * @param entry the game
+     */
+    public synchronized void record(ScoreEntry entry) {
+        if (entry.getPlayerName().equals(entry.getOpponentName())) {
+            return; // One standing would get both the win and the loss
+        }
+        double score;
+        switch (entry.getResult()) {
+            case "WIN": score = 1.0; break;
+            case "LOSS": score = 0.0; break;
+            case "TIE": score = 0.5; break;
+            default: return; // Not a rated result
+        }
+        PlayerStanding player = standing(entry.getPlayerName());
+        PlayerStanding opponent = standing(entry.getOpponentName());
+        double expected = 1.0 / (1.0 + Math.pow(10, (opponent.getRating() - player.getRating()) / 400));
+        double change = K_FACTOR * (score - expected);
+
+        ranking.remove(player);
+        ranking.remove(opponent);
+        player.record(score, change);
+        opponent.record(1.0 - score, -change);
+        ranking.add(player);
+        ranking.add(opponent);
+    }
+
+    private PlayerStanding standing(String name) {
+        PlayerStanding standing = players.get(name);
+        if (standing == null) {
+            standing = new PlayerStanding(name, INITIAL_RATING);
+            players.put(name, standing);
+            ranking.add(standing);
+        }
+        return standing;
+    }
+
+    /**
+     * Returns the highest-rated players.
+     * @param k how many to return
+     * @return up to k standings, best first
+     */
+    public synchronized List<PlayerStanding> top(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Count cannot be negative: " + k);
+        }
+        List<PlayerStanding> top = new ArrayList<>(Math.min(k, ranking.size()));
+        Iterator<PlayerStanding> it = ranking.iterator();
+        while (top.size() < k && it.hasNext()) {
+            top.add(it.next().copy());
+        }
+        return top;
+    }
+
+    /**
+     * Returns one player's standing.
+     * @param name the player's name
+     * @return a snapshot, or null if they have not played
+     */
+    public synchronized PlayerStanding get(String name) {
+        PlayerStanding standing = players.get(name);
+        return (standing == null) ? null : standing.copy();
+    }
+
+    /**
+     * @return the number of players with at least one rated game
+     */
+    public synchronized int size() {
+        return players.size();
+    }
+
+    /**
+     * Removes every player.
+     */
+    public synchronized void clear() {
+        players.clear();
+        ranking.clear();
+    }
+
+    /**
+     * Replaces this leaderboard's contents with another's.
+     * @param other the leaderboard to copy from
+     */
+    synchronized void replaceWith(Leaderboard other) {
+        clear();
+        synchronized (other) {
+            for (PlayerStanding standing : other.players.values()) {
+                PlayerStanding copy = standing.copy();
+                players.put(copy.getName(), copy);
+                ranking.add(copy);
+            }
+        }
+    }
+
+    /**
+     * Writes the leaderboard to a checkpoint, recording that it covers the
+     * first coveredSize bytes of the score log. The checkpoint is written
+     * to a temporary file first and then moved into place.
+     * @param checkpoint the checkpoint file
+     * @param log the score log
+     * @param coveredSize how much of the log the leaderboard includes
+     * @throws IOException if writing fails
+     */
+    synchronized void saveCheckpoint(Path checkpoint, Path log, long coveredSize) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(coveredSize);
+            out.writeLong(fingerprint(log, coveredSize));
+            out.writeInt(players.size());
+            for (PlayerStanding standing : players.values()) {
+                out.writeUTF(standing.getName());
+                out.writeLong(standing.getWins());
+                out.writeLong(standing.getLosses());
+                out.writeLong(standing.getTies());
+                out.writeDouble(standing.getRating());
+            }
+        }
+        try {
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Replaces the contents with a checkpoint, if it still matches the log:
+     * the log must be at least as long as when the checkpoint was taken,
+     * with the same bytes just before that point.
+     * @param checkpoint the checkpoint file
+     * @param log the score log
+     * @return how much of the log the checkpoint covers, or -1 if there is
+     *         no usable checkpoint (the leaderboard is then left empty)
+     */
+    synchronized long loadCheckpoint(Path checkpoint, Path log) {
+        clear();
+        if (!Files.exists(checkpoint)) {
+            return -1;
+        }
+        try (InputStream file = Files.newInputStream(checkpoint);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return -1;
+            }
+            long coveredSize = in.readLong();
+            long logSize = Files.exists(log) ? Files.size(log) : 0;
+            if (coveredSize > logSize || in.readLong() != fingerprint(log, coveredSize)) {
+                return -1; // The log was cleared or rewritten
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                PlayerStanding standing = new PlayerStanding(in.readUTF(), INITIAL_RATING);
+                standing.restore(in.readLong(), in.readLong(), in.readLong(), in.readDouble());
+                players.put(standing.getName(), standing);
+                ranking.add(standing);
+            }
+            return coveredSize;
+        } catch (IOException e) {
+            clear(); // Damaged checkpoint; replay the whole log instead
+            return -1;
+        }
+    }
+
+    /**
+     * Checksums the bytes just before the given offset of the log.
+     */
+    private static long fingerprint(Path log, long size) throws IOException {
+        CRC32 crc = new CRC32();
+        if (size > 0) {
+            int length = (int) Math.min(size, FINGERPRINT_BYTES);
+            ByteBuffer bytes = ByteBuffer.allocate(length);
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+                while (bytes.hasRemaining()
+                        && channel.read(bytes, size - length + bytes.position()) >= 0) {
+                    // Keep reading until the range is complete or the file ends
+                }
+            }
+            bytes.flip();
+            crc.update(bytes);
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,110 @@
+package tictactoe;
+
+/**
+ * Plays complete games between two computer opponents without any UI.
+ * X always moves first. The engine reuses one board for every game, so
+ * it should be confined to a single thread; create one engine per thread
+ * to play games in parallel.
+ */
+public class MatchEngine {
+
+    private final Board board;
+
+    /**
+     * Creates an engine for the classic 3x3 board.
+     */
+    public MatchEngine() {
+        this(Board.SIZE, Board.SIZE);
+    }
+
+    /**
+     * Creates an engine for an N x N board won by K in a row.
+     * @param size the number of rows and columns
+     * @param winLength the number of marks in a row needed to win
+     */
+    public MatchEngine(int size, int winLength) {
+        this.board = new Board(size, winLength);
+    }
+
+    /**
+     * Plays one game between two players, which must use X and O.
+     * @param x the player moving first
+     * @param o the player moving second
+     * @return the winning mark, or Board.EMPTY for a draw
+     * @throws IllegalArgumentException if the players' marks are not X and O
+     * @throws IllegalStateException if a player makes no move or an invalid one
+     */
+    public char play(Player x, Player o) {
+        if (x.getMark() != Board.X || o.getMark() != Board.O) {
+            throw new IllegalArgumentException("Players must be X and O, not "
+                + x.getMark() + " and " + o.getMark());
+        }
+        board.reset();
+        char turn = Board.X;
+        while (!board.isGameOver()) {
+            Player player = (turn == Board.X) ? x : o;
+            place(player.chooseMove(board), turn, player.getName());
+            turn = (turn == Board.X) ? Board.O : Board.X;
+        }
+        return board.getWinner();
+    }
+
+    /**
+     * Plays one game between two strategies.
+     * @param x the strategy playing X (moves first)
+     * @param o the strategy playing O
+     * @return the winning mark, or Board.EMPTY for a draw
+     * @throws IllegalStateException if a strategy makes no move or an invalid one
+     */
+    public char play(ComputerMoveStrategy x, ComputerMoveStrategy o) {
+        return play(x, o, null, null);
+    }
+
+    /**
+     * Plays one game between two strategies, recording how long each of
+     * their moves took.
+     * @param x the strategy playing X (moves first)
+     * @param o the strategy playing O
+     * @param xLatency receives X's move times, or null
+     * @param oLatency receives O's move times, or null
+     * @return the winning mark, or Board.EMPTY for a draw
+     * @throws IllegalStateException if a strategy makes no move or an invalid one
+     */
+    public char play(ComputerMoveStrategy x, ComputerMoveStrategy o,
+                     LatencyHistogram xLatency, LatencyHistogram oLatency) {
+        board.reset();
+        char turn = Board.X;
+        while (!board.isGameOver()) {
+            ComputerMoveStrategy strategy = (turn == Board.X) ? x : o;
+            LatencyHistogram latency = (turn == Board.X) ? xLatency : oLatency;
+            long start = System.nanoTime();
+            Move move = strategy.choose(board, turn);
+            if (latency != null) {
+                latency.record(System.nanoTime() - start);
+            }
+            place(move, turn, strategy.getName());
+            turn = (turn == Board.X) ? Board.O : Board.X;
+        }
+        return board.getWinner();
+    }
+
+    /**
+     * Applies a move, rejecting missing or invalid ones.
+     */
+    private void place(Move move, char mark, String name) {
+        if (move == null) {
+            throw new IllegalStateException(name + " did not choose a move");
+        }
+        if (board.tryPlaceMark(move.getRow(), move.getCol(), mark) != Board.PLACED) {
+            throw new IllegalStateException(name + " made an invalid move: " + move);
+        }
+    }
+
+    /**
+     * Returns the final position of the last game played.
+     * @return a copy of the board
+     */
+    public Board getBoard() {
+        return board.copy();
+    }
+}
@@ -1,6 +1,7 @@
 package tictactoe;
 
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Unbeatable AI strategy using the Minimax algorithm with recursion.
@@ -10,111 +11,606 @@ import java.util.List;
  * 1. Recursively exploring all possible future game states
  * 2. Assuming the opponent plays optimally
  * 3. Choosing the move that maximizes our minimum guaranteed outcome
+ *
+ * Alpha-beta pruning skips branches that cannot change the result, and
+ * moves are tried center first, then corners, then edges, with killer and
+ * history ordering below the root so cutoffs happen as early as possible.
+ * The chosen move and its score are the same as plain Minimax would give.
+ *
+ * Searched positions are cached in a transposition table keyed on the
+ * canonical (symmetry-reduced) position. The table is shared by every
+ * MinimaxStrategy, so it survives across moves, games and difficulty
+ * changes for the rest of the session.
+ *
+ * With a time budget the search deepens one ply at a time and returns the
+ * best move of the deepest search that finished in time. Interrupting the
+ * searching thread stops the search; choose() then returns null. On boards larger
+ * than 3x3, where a full search is out of reach, positions at the depth
+ * limit are scored by counting open lines, and only empty cells near
+ * existing marks are considered.
+ *
+ * The search works on a single scratch copy of the board, placing and
+ * undoing marks in place, so no objects are allocated per node.
  */
 public class MinimaxStrategy implements ComputerMoveStrategy {
 
+    /**
+     * Static move order on the classic board as cell indices: center,
+     * corners, edges. Shared within the package; never modified.
+     */
+    static final int[] CLASSIC_ORDER = {4, 0, 2, 6, 8, 1, 3, 5, 7};
+
+    /** Score of an immediate win on the classic board. */
+    private static final int CLASSIC_WIN_SCORE = 10;
+
+    /** Score of an immediate win on larger boards, far above any heuristic score. */
+    private static final int LARGE_WIN_SCORE = 1_000_000;
+
+    /** On larger boards, only empty cells this close to a mark are searched. */
+    private static final int NEIGHBORHOOD = 2;
+
+    /**
+     * Time budget used by choose(board, mark) on boards larger than 3x3,
+     * where searching the whole game tree would never finish.
+     */
+    public static final long DEFAULT_LARGE_BOARD_MILLIS = 1000;
+
+    /** Nodes searched between clock and interrupt checks. */
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    /** Positions cached across all searches in this session. */
+    private static final TranspositionTable TABLE = new TranspositionTable();
+
     private char aiMark;
     private char humanMark;
     private int nodesExplored; // For demonstration purposes
+    private Move lastMove;
+    private int lastScore;
+    private int lastDepth;
+    private boolean verbose;
+
+    // Settings for the current search
+    private boolean classic;
+    private int winScore;
+    private int plyLimit;    // plies searched, counting the root move
+    private boolean useTable;
+    private long deadline;   // System.nanoTime() deadline, or 0 for none
+    private AtomicBoolean stop; // Set by another thread to abort, or null
+    private boolean aborted;
+    private int rootScore;
+
+    // Move ordering state, sized for the board: the static order, one
+    // killer move per depth, and a history score per cell that grows
+    // whenever the cell causes a cutoff
+    private int boardSize;
+    private int[] moveOrder;
+    private int[] killers;
+    private int[] history;
+    private int[][] orderBuffers;
 
+    /**
+     * Searches the whole game tree on the classic board. Larger boards are
+     * searched with iterative deepening for DEFAULT_LARGE_BOARD_MILLIS.
+     */
     @Override
     public Move choose(Board board, char mark) {
+        if (!board.isClassic()) {
+            return choose(board, mark, DEFAULT_LARGE_BOARD_MILLIS);
+        }
+        prepare(board, mark);
+        Board searchBoard = board.copy();
+        int cell = searchRoot(searchBoard, remainingCells(board));
+        return finish(cell, rootScore, remainingCells(board));
+    }
+
+    /**
+     * Chooses a move within a time budget using iterative deepening:
+     * searches 1 ply ahead, then 2, and so on, keeping the result of the
+     * deepest search that completed. The 1-ply search always completes,
+     * so a move is returned even if the budget is tiny. When the full game
+     * tree fits in the budget the result is the same as choose(board, mark).
+     */
+    @Override
+    public Move choose(Board board, char mark, long timeBudgetMillis) {
+        long budgetEnd = System.nanoTime() + Math.max(0, timeBudgetMillis) * 1_000_000L;
+        prepare(board, mark);
+        Board searchBoard = board.copy();
+        int remaining = remainingCells(board);
+
+        int bestCell = -1;
+        int bestScore = 0;
+        int depthDone = 0;
+        for (int plies = 1; plies <= remaining; plies++) {
+            if (plies > 1 && System.nanoTime() >= budgetEnd) {
+                break;
+            }
+            deadline = (plies > 1) ? budgetEnd : 0;
+            int cell = searchRoot(searchBoard, plies);
+            if (aborted) {
+                if (Thread.currentThread().isInterrupted()) {
+                    bestCell = -1; // Cancelled; nobody wants the move
+                }
+                break;
+            }
+            bestCell = cell;
+            bestScore = rootScore;
+            depthDone = plies;
+            if (Math.abs(bestScore) >= winScore - remaining) {
+                break; // A forced win or loss was found; deeper won't change it
+            }
+        }
+        deadline = 0;
+        return finish(bestCell, bestScore, depthDone);
+    }
+
+    /**
+     * Records and reports the result of a search.
+     */
+    private Move finish(int cell, int score, int depth) {
+        Move bestMove = (cell < 0) ? null : Move.of(cell / boardSize, cell % boardSize);
+        lastMove = bestMove;
+        lastScore = score;
+        lastDepth = depth;
+        if (verbose && bestMove != null) {
+            System.out.println("Minimax explored " + nodesExplored + " nodes to depth " + depth
+                + ", chose " + bestMove + " with score " + score);
+        }
+        return bestMove;
+    }
+
+    /**
+     * Sets up the per-search state for a board and the AI's mark.
+     */
+    private void prepare(Board board, char mark) {
         this.aiMark = mark;
         this.humanMark = (mark == Board.X) ? Board.O : Board.X;
         this.nodesExplored = 0;
+        this.aborted = false;
+        this.deadline = 0;
+        this.stop = null;
+        this.classic = board.isClassic();
+        this.winScore = winScore(board);
 
-        List<Move> availableMoves = board.getEmptyCells();
-        
-        if (availableMoves.isEmpty()) {
-            return null;
+        if (board.getSize() != boardSize) {
+            boardSize = board.getSize();
+            int cells = boardSize * boardSize;
+            moveOrder = classic ? CLASSIC_ORDER.clone() : centerOutOrder(boardSize);
+            killers = new int[cells + 1];
+            history = new int[cells];
+            orderBuffers = new int[cells + 1][cells];
+        } else {
+            // Age the history so earlier games fade out of the move order
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
         }
+    }
+
+    /**
+     * Returns the score of an immediate win on a board; scores at least
+     * this far from zero, less the plies to the end, are forced results.
+     */
+    static int winScore(Board board) {
+        return board.isClassic() ? CLASSIC_WIN_SCORE : LARGE_WIN_SCORE;
+    }
+
+    static int remainingCells(Board board) {
+        return board.getSize() * board.getSize() - board.getMoveCount();
+    }
+
+    /**
+     * Searches every root move to the given number of plies and returns the
+     * first best one in static order (or -1 if there is no move). Its score
+     * is left in rootScore.
+     */
+    private int searchRoot(Board board, int plies) {
+        plyLimit = plies;
+        // Only complete searches give exact values that are safe to cache
+        useTable = classic && plies >= remainingCells(board);
+        aborted = false;
+        Arrays.fill(killers, -1);
 
-        Move bestMove = null;
+        int bestCell = -1;
         int bestScore = Integer.MIN_VALUE;
 
-        // Try each available move and find the best one
-        for (Move move : availableMoves) {
-            Board testBoard = board.copy();
-            try {
-                testBoard.placeMark(move.getRow(), move.getCol(), aiMark);
-            } catch (InvalidMoveException e) {
+        // Try each available move in static order and keep the first best
+        // one; the root is never reordered so the choice is deterministic
+        for (int cell : moveOrder) {
+            int row = cell / boardSize;
+            int col = cell % boardSize;
+            if (!isCandidate(board, row, col)
+                    || board.tryPlaceMark(row, col, aiMark) != Board.PLACED) {
                 continue;
             }
 
-            // Recursively calculate the score for this move
-            int score = minimax(testBoard, 0, false);
+            // Recursively calculate the score for this move; only a strictly
+            // better score matters here, so alpha is the best found so far
+            int score = minimax(board, 0, false, bestScore, Integer.MAX_VALUE);
+            board.undoMark();
+            if (aborted) {
+                return -1;
+            }
 
             if (score > bestScore) {
                 bestScore = score;
-                bestMove = move;
+                bestCell = cell;
             }
         }
 
-        System.out.println("Minimax explored " + nodesExplored + " nodes");
-        return bestMove;
+        rootScore = bestScore;
+        return bestCell;
+    }
+
+    /**
+     * Lists the cells a search would try in a position, in static order.
+     * Used by ParallelMinimaxStrategy to split the top of the tree.
+     * @param board the position
+     * @return the candidate cells
+     */
+    int[] candidates(Board board) {
+        prepare(board, Board.X);
+        int[] cells = new int[moveOrder.length];
+        int count = 0;
+        for (int cell : moveOrder) {
+            if (isCandidate(board, cell / boardSize, cell % boardSize)) {
+                cells[count++] = cell;
+            }
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * Scores a position with an alpha-beta search, as seen by the given mark.
+     * Used by ParallelMinimaxStrategy for the subtrees it hands to workers.
+     * Like minimax(), the result is exact inside the window and a bound
+     * outside it; the board is left unchanged.
+     *
+     * @param board the position to score (searched in place)
+     * @param mark the AI's mark
+     * @param depth the depth of this position below the root
+     * @param isMaximizing true if the AI is to move in this position
+     * @param alpha the score the maximizing player is already assured of
+     * @param beta the score the minimizing player is already assured of
+     * @param plies the ply limit of the whole search, counting the root move
+     * @param deadline System.nanoTime() deadline, or 0 for none
+     * @param stop checked with the clock; set here if the search is aborted
+     * @return the Minimax score of the position, or 0 if aborted
+     */
+    int evaluate(Board board, char mark, int depth, boolean isMaximizing, int alpha, int beta,
+                 int plies, long deadline, AtomicBoolean stop) {
+        prepare(board, mark);
+        plyLimit = plies;
+        // The root had depth + 1 fewer marks; only complete searches are cached
+        useTable = classic && (long) plies >= remainingCells(board) + depth + 1L;
+        this.deadline = deadline;
+        this.stop = stop;
+        Arrays.fill(killers, -1);
+        int score = minimax(board, depth, isMaximizing, alpha, beta);
+        this.deadline = 0;
+        this.stop = null;
+        if (aborted) {
+            stop.set(true);
+            return 0;
+        }
+        return score;
     }
 
     /**
-     * Recursive Minimax algorithm.
+     * Recursive Minimax algorithm with alpha-beta pruning.
      * 
      * @param board the current board state
      * @param depth the current depth in the game tree
      * @param isMaximizing true if it's the AI's turn (maximizing player)
+     * @param alpha the score the maximizing player is already assured of
+     * @param beta the score the minimizing player is already assured of
      * @return the score of the board position
      */
-    private int minimax(Board board, int depth, boolean isMaximizing) {
+    private int minimax(Board board, int depth, boolean isMaximizing, int alpha, int beta) {
         nodesExplored++;
+        if (nodesExplored % CLOCK_CHECK_INTERVAL == 0
+                && ((deadline != 0 && System.nanoTime() >= deadline)
+                    || Thread.currentThread().isInterrupted()
+                    || (stop != null && stop.get()))) {
+            aborted = true;
+            return 0;
+        }
 
         // Base cases: check for terminal states
         if (board.checkWin(aiMark)) {
-            return 10 - depth; // Win sooner is better
+            return winScore - depth; // Win sooner is better
         }
         if (board.checkWin(humanMark)) {
-            return depth - 10; // Lose later is better
+            return depth - winScore; // Lose later is better
         }
         if (board.isFull()) {
             return 0; // Draw
         }
+        if (depth + 1 >= plyLimit) {
+            return heuristic(board); // Depth limit reached
+        }
 
-        List<Move> availableMoves = board.getEmptyCells();
-
-        if (isMaximizing) {
-            // AI's turn - maximize the score
-            int bestScore = Integer.MIN_VALUE;
-            
-            for (Move move : availableMoves) {
-                Board testBoard = board.copy();
-                try {
-                    testBoard.placeMark(move.getRow(), move.getCol(), aiMark);
-                } catch (InvalidMoveException e) {
-                    continue;
+        // Reuse an earlier result for this position (or a symmetric one)
+        int key = 0;
+        if (useTable) {
+            key = board.canonicalKey();
+            int entry = TABLE.probe(key);
+            if (entry != 0) {
+                int stored = fromTable(TranspositionTable.scoreOf(entry), depth);
+                int bound = TranspositionTable.boundOf(entry);
+                if (aiMark == Board.O && bound != TranspositionTable.EXACT) {
+                    // The table is from X's point of view; flip the bound for O
+                    bound = (bound == TranspositionTable.LOWER_BOUND)
+                        ? TranspositionTable.UPPER_BOUND : TranspositionTable.LOWER_BOUND;
+                }
+                if (bound == TranspositionTable.EXACT) {
+                    return stored;
+                } else if (bound == TranspositionTable.LOWER_BOUND) {
+                    alpha = Math.max(alpha, stored);
+                } else {
+                    beta = Math.min(beta, stored);
                 }
-                
-                // Recursive call
-                int score = minimax(testBoard, depth + 1, false);
+                if (alpha >= beta) {
+                    return stored;
+                }
+            }
+        }
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+
+        // AI's turn maximizes the score, human's turn minimizes it
+        // (opponent plays optimally)
+        char mark = isMaximizing ? aiMark : humanMark;
+        int bestScore = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+
+        int[] moves = orderBuffers[depth];
+        int count = orderMoves(board, depth, moves);
+        for (int i = 0; i < count; i++) {
+            int cell = moves[i];
+            if (board.tryPlaceMark(cell / boardSize, cell % boardSize, mark) != Board.PLACED) {
+                continue;
+            }
+
+            // Recursive call, then restore the board for the next sibling
+            int score = minimax(board, depth + 1, !isMaximizing, alpha, beta);
+            board.undoMark();
+            if (aborted) {
+                return 0;
+            }
+
+            if (isMaximizing) {
                 bestScore = Math.max(score, bestScore);
+                alpha = Math.max(alpha, score);
+            } else {
+                bestScore = Math.min(score, bestScore);
+                beta = Math.min(beta, score);
             }
-            
-            return bestScore;
-        } else {
-            // Human's turn - minimize the score (opponent plays optimally)
-            int bestScore = Integer.MAX_VALUE;
-            
-            for (Move move : availableMoves) {
-                Board testBoard = board.copy();
-                try {
-                    testBoard.placeMark(move.getRow(), move.getCol(), humanMark);
-                } catch (InvalidMoveException e) {
-                    continue;
+
+            if (alpha >= beta) {
+                // Cutoff: remember the move that caused it
+                int remaining = killers.length - depth;
+                killers[depth] = cell;
+                history[cell] += remaining * remaining;
+                break;
+            }
+        }
+
+        if (useTable) {
+            int bound;
+            if (bestScore <= alphaOrig) {
+                bound = TranspositionTable.UPPER_BOUND;
+            } else if (bestScore >= betaOrig) {
+                bound = TranspositionTable.LOWER_BOUND;
+            } else {
+                bound = TranspositionTable.EXACT;
+            }
+            if (aiMark == Board.O && bound != TranspositionTable.EXACT) {
+                bound = (bound == TranspositionTable.LOWER_BOUND)
+                    ? TranspositionTable.UPPER_BOUND : TranspositionTable.LOWER_BOUND;
+            }
+            TABLE.store(key, bound, toTable(bestScore, depth));
+        }
+
+        return bestScore;
+    }
+
+    /**
+     * Fills the buffer with the candidate cells in search order: the killer
+     * move for this depth first, then by history score, ties broken by the
+     * static order.
+     * @return the number of moves written
+     */
+    private int orderMoves(Board board, int depth, int[] moves) {
+        int count = 0;
+        int killer = killers[depth];
+        if (killer >= 0 && isCandidate(board, killer / boardSize, killer % boardSize)) {
+            moves[count++] = killer;
+        }
+        int start = count;
+        for (int cell : moveOrder) {
+            if (cell == killer || !isCandidate(board, cell / boardSize, cell % boardSize)) {
+                continue;
+            }
+            // Insertion sort by descending history score (stable)
+            int i = count++;
+            while (i > start && history[moves[i - 1]] < history[cell]) {
+                moves[i] = moves[i - 1];
+                i--;
+            }
+            moves[i] = cell;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a cell should be searched. On the classic board that is
+     * every empty cell; on larger boards only empty cells near a mark (or the
+     * center of an empty board).
+     */
+    private boolean isCandidate(Board board, int row, int col) {
+        if (!board.isEmpty(row, col)) {
+            return false;
+        }
+        if (classic) {
+            return true;
+        }
+        if (board.getMoveCount() == 0) {
+            return row == boardSize / 2 && col == boardSize / 2;
+        }
+        for (int r = Math.max(0, row - NEIGHBORHOOD); r <= Math.min(boardSize - 1, row + NEIGHBORHOOD); r++) {
+            for (int c = Math.max(0, col - NEIGHBORHOOD); c <= Math.min(boardSize - 1, col + NEIGHBORHOOD); c++) {
+                if (!board.isEmpty(r, c)) {
+                    return true;
                 }
-                
-                // Recursive call
-                int score = minimax(testBoard, depth + 1, true);
-                bestScore = Math.min(score, bestScore);
             }
-            
-            return bestScore;
         }
+        return false;
+    }
+
+    /**
+     * Scores a non-final position at the depth limit. On the classic board
+     * this is 0; on larger boards every window of winLength cells that only
+     * one side has marks in counts for that side, more with more marks.
+     */
+    private int heuristic(Board board) {
+        if (classic) {
+            return 0;
+        }
+        int k = board.getWinLength();
+        long score = 0;
+        for (int d = 0; d < Board.DIR_ROWS.length; d++) {
+            int dRow = Board.DIR_ROWS[d];
+            int dCol = Board.DIR_COLS[d];
+            for (int row = 0; row < boardSize; row++) {
+                for (int col = 0; col < boardSize; col++) {
+                    int endRow = row + (k - 1) * dRow;
+                    int endCol = col + (k - 1) * dCol;
+                    if (!board.isValidPosition(endRow, endCol)) {
+                        continue;
+                    }
+                    int mine = 0;
+                    int theirs = 0;
+                    for (int i = 0; i < k; i++) {
+                        char cell = board.getCell(row + i * dRow, col + i * dCol);
+                        if (cell == aiMark) {
+                            mine++;
+                        } else if (cell == humanMark) {
+                            theirs++;
+                        }
+                    }
+                    if (theirs == 0 && mine > 0) {
+                        score += 1L << (2 * Math.min(mine, 10));
+                    } else if (mine == 0 && theirs > 0) {
+                        score -= 1L << (2 * Math.min(theirs, 10));
+                    }
+                }
+            }
+        }
+        long limit = winScore / 2;
+        return (int) Math.max(-limit, Math.min(limit, score));
+    }
+
+    /**
+     * Orders the cells of a larger board from the center outward.
+     */
+    private static int[] centerOutOrder(int size) {
+        Integer[] cells = new Integer[size * size];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        double center = (size - 1) / 2.0;
+        Arrays.sort(cells, (a, b) -> Double.compare(
+            Math.abs(a / size - center) + Math.abs(a % size - center),
+            Math.abs(b / size - center) + Math.abs(b % size - center)));
+        int[] order = new int[cells.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = cells[i];
+        }
+        return order;
+    }
+
+    /**
+     * Converts a search score at the given depth to the table's form:
+     * from X's point of view and counted from this position, not the root.
+     */
+    private int toTable(int score, int depth) {
+        int fromX = (aiMark == Board.X) ? score : -score;
+        if (fromX > 0) return fromX + depth;
+        if (fromX < 0) return fromX - depth;
+        return 0;
+    }
+
+    /**
+     * Converts a table score back to a search score at the given depth.
+     */
+    private int fromTable(int stored, int depth) {
+        int fromX = 0;
+        if (stored > 0) fromX = stored - depth;
+        if (stored < 0) fromX = stored + depth;
+        return (aiMark == Board.X) ? fromX : -fromX;
+    }
+
+    /**
+     * Rejects boards other than the classic 3x3 one, for strategies whose
+     * move order, scoring or tables assume it.
+     */
+    static void requireClassic(Board board) {
+        if (!board.isClassic()) {
+            throw new IllegalArgumentException("Only the classic 3x3 board is supported, not "
+                + board.getSize() + "x" + board.getSize() + " with " + board.getWinLength() + " in a row");
+        }
+    }
+
+    /**
+     * Turns the per-move search report on standard output on or off
+     * (off by default, since searches also run on background threads and
+     * for every server session). The same figures are always available
+     * from getNodesExplored(), getLastDepth() and getLastScore().
+     * @param verbose true to print a line per chosen move
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Returns the number of positions examined by the last call to choose().
+     * @return node count
+     */
+    public int getNodesExplored() {
+        return nodesExplored;
+    }
+
+    /**
+     * Returns the move picked by the last call to choose().
+     * @return the last chosen Move, or null if there was none
+     */
+    public Move getLastMove() {
+        return lastMove;
+    }
+
+    /**
+     * Returns the Minimax score of the last chosen move
+     * (positive: forced win, 0: draw, negative: forced loss).
+     * @return the last score
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Returns how many plies ahead the last chosen move was searched.
+     * @return the completed search depth
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * Returns the transposition table shared by all Minimax searches,
+     * including its hit and miss counters.
+     * @return the shared table
+     */
+    public static TranspositionTable getTranspositionTable() {
+        return TABLE;
     }
 
     @Override
@@ -0,0 +1,325 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * AI strategy using Monte Carlo Tree Search with the UCT selection rule.
+ * Instead of searching the whole game tree, it plays many random games
+ * (playouts) and grows a tree toward the moves that win most often.
+ * Works on boards of any size, and strength can be traded for time by
+ * changing the playout or time budget.
+ *
+ * Tree nodes live in parallel primitive arrays that are reused across
+ * calls, and playouts run in place on one scratch board, so a search
+ * allocates almost nothing after the first call.
+ */
+public class MonteCarloStrategy implements ComputerMoveStrategy {
+
+    /** Playouts per move when no budget is given. */
+    public static final int DEFAULT_PLAYOUTS = 10000;
+
+    /** UCT exploration constant (about sqrt(2)). */
+    private static final double EXPLORATION = 1.41;
+
+    /**
+     * How many playouts run between clock checks. Interrupts are checked
+     * as often, so a cancelled search stops early with its best move so far.
+     */
+    private static final int CLOCK_CHECK_INTERVAL = 64;
+
+    /** One random generator per thread, for instances created without a seed. */
+    private static final ThreadLocal<SplittableRandom> RANDOMS =
+        ThreadLocal.withInitial(SplittableRandom::new);
+
+    private final SplittableRandom seededRandom;
+    private int playoutBudget;
+    private long timeBudgetMillis;
+    private int lastPlayouts;
+
+    // Node pool: node i's move, visit count, score for the player who made
+    // the move, and its children as a contiguous block (count 0 = leaf)
+    private int[] moveCell = new int[1024];
+    private int[] visits = new int[1024];
+    private double[] wins = new double[1024];
+    private int[] firstChild = new int[1024];
+    private int[] childCount = new int[1024];
+    private int nodeCount;
+
+    // Scratch space sized to the board: the nodes on the current path and
+    // the empty cells during a playout
+    private int[] path = new int[0];
+    private int[] emptyCells = new int[0];
+
+    /**
+     * Creates an MCTS strategy with the default playout budget.
+     */
+    public MonteCarloStrategy() {
+        this(DEFAULT_PLAYOUTS);
+    }
+
+    /**
+     * Creates an MCTS strategy that runs a fixed number of playouts per move.
+     * @param playouts the playout budget
+     */
+    public MonteCarloStrategy(int playouts) {
+        this.seededRandom = null;
+        setPlayoutBudget(playouts);
+    }
+
+    /**
+     * Creates an MCTS strategy with a specific seed (for testing).
+     * @param playouts the playout budget
+     * @param seed the random seed
+     */
+    public MonteCarloStrategy(int playouts, long seed) {
+        this.seededRandom = new SplittableRandom(seed);
+        setPlayoutBudget(playouts);
+    }
+
+    /**
+     * Sets the maximum number of playouts per move (0 for no limit).
+     * @param playouts the playout budget
+     */
+    public void setPlayoutBudget(int playouts) {
+        if (playouts < 0) {
+            throw new IllegalArgumentException("Playout budget cannot be negative: " + playouts);
+        }
+        this.playoutBudget = playouts;
+    }
+
+    /**
+     * Sets the maximum wall-clock time per move (0 for no limit).
+     * When both budgets are set, the search stops at whichever runs out first.
+     * @param millis the time budget in milliseconds
+     */
+    public void setTimeBudgetMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative: " + millis);
+        }
+        this.timeBudgetMillis = millis;
+    }
+
+    /**
+     * Returns the number of playouts run by the last call to choose().
+     * @return playout count
+     */
+    public int getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Searches until the time budget runs out, ignoring the playout budget.
+     */
+    @Override
+    public Move choose(Board board, char mark, long timeBudgetMillis) {
+        int savedPlayouts = playoutBudget;
+        long savedMillis = this.timeBudgetMillis;
+        playoutBudget = 0;
+        this.timeBudgetMillis = Math.max(1, timeBudgetMillis);
+        try {
+            return choose(board, mark);
+        } finally {
+            playoutBudget = savedPlayouts;
+            this.timeBudgetMillis = savedMillis;
+        }
+    }
+
+    @Override
+    public Move choose(Board board, char mark) {
+        if (board.isGameOver()) {
+            return null;
+        }
+        if (playoutBudget == 0 && timeBudgetMillis == 0) {
+            throw new IllegalStateException("MCTS needs a playout or time budget");
+        }
+        SplittableRandom random = (seededRandom != null) ? seededRandom : RANDOMS.get();
+        Board searchBoard = board.copy();
+        int cells = board.getSize() * board.getSize();
+        if (path.length < cells + 1) {
+            path = new int[cells + 1];
+            emptyCells = new int[cells];
+        }
+
+        nodeCount = 0;
+        int root = newNode(-1);
+        long deadline = (timeBudgetMillis > 0) ? System.nanoTime() + timeBudgetMillis * 1_000_000L : 0;
+        int playouts = 0;
+        while (playoutBudget == 0 || playouts < playoutBudget) {
+            if (playouts % CLOCK_CHECK_INTERVAL == 0 && playouts > 0
+                    && ((deadline != 0 && System.nanoTime() >= deadline)
+                        || Thread.currentThread().isInterrupted())) {
+                break;
+            }
+            runPlayout(searchBoard, root, mark, random);
+            playouts++;
+        }
+        lastPlayouts = playouts;
+
+        // The most visited move is the most reliable one
+        int best = -1;
+        for (int i = 0; i < childCount[root]; i++) {
+            int child = firstChild[root] + i;
+            if (best < 0 || visits[child] > visits[best]) {
+                best = child;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        int size = board.getSize();
+        return Move.of(moveCell[best] / size, moveCell[best] % size);
+    }
+
+    /**
+     * One MCTS iteration: select down the tree, expand a leaf, play a random
+     * game from there and back the result up the path. The board is restored
+     * before returning.
+     */
+    private void runPlayout(Board board, int root, char mark, SplittableRandom random) {
+        char toMove = mark;
+        int depth = 0;
+        int node = root;
+        path[0] = root;
+
+        // Selection
+        while (childCount[node] > 0) {
+            node = selectChild(node);
+            play(board, moveCell[node], toMove);
+            toMove = other(toMove);
+            path[++depth] = node;
+        }
+
+        // Expansion: a leaf gets children once it has been visited before
+        if (!board.isGameOver() && (visits[node] > 0 || node == root)) {
+            expand(node, board);
+            node = selectChild(node);
+            play(board, moveCell[node], toMove);
+            toMove = other(toMove);
+            path[++depth] = node;
+        }
+
+        // Simulation
+        char winner = randomPlayout(board, toMove, random);
+
+        // Backpropagation: each node scores for the player who moved into it
+        char mover = (depth % 2 == 0) ? other(mark) : mark;
+        for (int i = depth; i >= 0; i--) {
+            int n = path[i];
+            visits[n]++;
+            if (winner == mover) {
+                wins[n] += 1.0;
+            } else if (winner == Board.EMPTY) {
+                wins[n] += 0.5;
+            }
+            mover = other(mover);
+        }
+
+        for (int i = 0; i < depth; i++) {
+            board.undoMark();
+        }
+    }
+
+    /**
+     * Picks the child with the highest UCT value; unvisited children first.
+     */
+    private int selectChild(int node) {
+        double logParent = Math.log(Math.max(1, visits[node]));
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < childCount[node]; i++) {
+            int child = firstChild[node] + i;
+            if (visits[child] == 0) {
+                return child;
+            }
+            double value = wins[child] / visits[child]
+                + EXPLORATION * Math.sqrt(logParent / visits[child]);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds one child per empty cell to a leaf.
+     */
+    private void expand(int node, Board board) {
+        int first = nodeCount;
+        for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+            newNode(cell);
+        }
+        firstChild[node] = first;
+        childCount[node] = nodeCount - first;
+    }
+
+    /**
+     * Plays random moves until the game ends, then undoes them.
+     * @return the winning mark, or EMPTY for a draw
+     */
+    private char randomPlayout(Board board, char toMove, SplittableRandom random) {
+        int remaining = 0;
+        if (!board.isGameOver()) {
+            for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+                emptyCells[remaining++] = cell;
+            }
+        }
+
+        int played = 0;
+        while (remaining > 0 && !board.isGameOver()) {
+            int pick = random.nextInt(remaining);
+            int cell = emptyCells[pick];
+            emptyCells[pick] = emptyCells[--remaining];
+            play(board, cell, toMove);
+            toMove = other(toMove);
+            played++;
+        }
+
+        char winner = board.getWinner();
+        for (int i = 0; i < played; i++) {
+            board.undoMark();
+        }
+        return winner;
+    }
+
+    /**
+     * Places a mark on a cell known to be empty.
+     */
+    private static void play(Board board, int cell, char mark) {
+        if (board.tryPlaceMark(cell / board.getSize(), cell % board.getSize(), mark) != Board.PLACED) {
+            // Cannot happen: only empty cells are played
+            throw new IllegalStateException("Cell " + cell + " is not playable");
+        }
+    }
+
+    /**
+     * Takes the next node from the pool, growing it if needed.
+     */
+    private int newNode(int cell) {
+        if (nodeCount == moveCell.length) {
+            int capacity = moveCell.length * 2;
+            moveCell = Arrays.copyOf(moveCell, capacity);
+            visits = Arrays.copyOf(visits, capacity);
+            wins = Arrays.copyOf(wins, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+        }
+        int node = nodeCount++;
+        moveCell[node] = cell;
+        visits[node] = 0;
+        wins[node] = 0.0;
+        firstChild[node] = 0;
+        childCount[node] = 0;
+        return node;
+    }
+
+    private static char other(char mark) {
+        return (mark == Board.X) ? Board.O : Board.X;
+    }
+
+    @Override
+    public String getName() {
+        return "Monte Carlo (MCTS)";
+    }
+}
@@ -5,6 +5,16 @@ package tictactoe;
  * Used for both potential and actual moves in the game.
  */
 public class Move {
+    /** Moves on boards up to this size are shared instances (see of()). */
+    private static final int CACHED_SIZE = 64;
+    private static final Move[] CACHE = new Move[CACHED_SIZE * CACHED_SIZE];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new Move(i / CACHED_SIZE, i % CACHED_SIZE);
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -18,6 +28,21 @@ public class Move {
         this.col = col;
     }
 
+    /**
+     * Returns the shared Move for a position, so that callers making many
+     * moves (like the AI strategies) do not allocate one each time.
+     * Positions outside the largest board get a new instance.
+     * @param row the row index
+     * @param col the column index
+     * @return a Move at (row, col)
+     */
+    public static Move of(int row, int col) {
+        if (row >= 0 && row < CACHED_SIZE && col >= 0 && col < CACHED_SIZE) {
+            return CACHE[row * CACHED_SIZE + col];
+        }
+        return new Move(row, col);
+    }
+
     /**
      * @return the row index of this move
      */
@@ -0,0 +1,596 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts games over a compact binary protocol with a few Selector event
+ * loops instead of a thread per connection, for nodes that must hold far
+ * more connections than GameServer can afford threads and string parsing.
+ *
+ * Each event loop owns its connections, its selector and a pool of direct
+ * buffers, so nothing is shared or locked between loops. A loop reads
+ * every ready connection, decodes their requests, applies the human moves,
+ * then computes all the AI replies of that round with one chooseBatch()
+ * call per difficulty before writing the responses. Each loop has one
+ * strategy instance per difficulty, shared by all its games. The AI runs
+ * on the loop thread, so only the cheap strategies (Random, Smart,
+ * PerfectPlay) are offered. Each connection
+ * plays one game on the classic board; the human is X.
+ *
+ * Requests are 1 or 2 bytes:
+ * <pre>
+ * NEW   difficulty (0 easy, 1 medium, 2 hard)
+ * MOVE  cell (row * 3 + col)
+ * BOARD
+ * RESET
+ * QUIT
+ * </pre>
+ * Every request gets an 8-byte response: the request's opcode, a status
+ * (STATUS_*), the game state (STATE_*), the AI's reply cell or NO_CELL,
+ * then the X and O cell masks as big-endian shorts (bit row * 3 + col).
+ * An unknown opcode gets a STATUS_BAD_REQUEST response and the connection
+ * is closed, since the rest of the stream can no longer be framed.
+ */
+public class NioGameGateway {
+
+    /** Request opcodes. */
+    public static final byte OP_NEW = 1;
+    public static final byte OP_MOVE = 2;
+    public static final byte OP_BOARD = 3;
+    public static final byte OP_RESET = 4;
+    public static final byte OP_QUIT = 5;
+
+    /** Response status codes; 1-3 are Board.tryPlaceMark() failure codes. */
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_GAME_OVER = 4;
+    public static final byte STATUS_NOT_YOUR_TURN = 5;
+    public static final byte STATUS_NO_GAME = 6;
+    public static final byte STATUS_BAD_REQUEST = 7;
+
+    /** Game states, from the human's side. */
+    public static final byte STATE_NO_GAME = 0;
+    public static final byte STATE_PLAYING = 1;
+    public static final byte STATE_THINKING = 2;
+    public static final byte STATE_WIN = 3;
+    public static final byte STATE_LOSS = 4;
+    public static final byte STATE_TIE = 5;
+
+    /** AI cell value when the AI did not move. */
+    public static final byte NO_CELL = (byte) 0xFF;
+
+    /** Size of every response. */
+    public static final int RESPONSE_SIZE = 8;
+
+    /** Difficulty codes accepted by NEW: 0 easy, 1 medium, 2 hard. */
+    private static final int DIFFICULTIES = 3;
+
+    /** Per-connection buffer size; room for dozens of pipelined requests. */
+    private static final int BUFFER_SIZE = 512;
+
+    private final int port;
+    private final EventLoop[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * Creates a gateway with one event loop.
+     * @param port the port to listen on, or 0 for any free port
+     */
+    public NioGameGateway(int port) {
+        this(port, 1);
+    }
+
+    /**
+     * Creates a gateway.
+     * @param port the port to listen on, or 0 for any free port
+     * @param eventLoops the number of event loop threads
+     */
+    public NioGameGateway(int port, int eventLoops) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        if (eventLoops < 1) {
+            throw new IllegalArgumentException("Need at least one event loop: " + eventLoops);
+        }
+        this.port = port;
+        this.loops = new EventLoop[eventLoops];
+    }
+
+    /**
+     * Binds the loopback port and starts the event loops. The first loop
+     * also accepts connections and deals them out round-robin.
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (serverChannel != null) {
+            throw new IllegalStateException("Gateway already started");
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        serverChannel.configureBlocking(false);
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(Selector.open());
+        }
+        serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        for (int i = 0; i < loops.length; i++) {
+            Thread thread = new Thread(loops[i], "nio-gateway-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * @return the port the gateway is listening on, or -1 before start()
+     */
+    public synchronized int getPort() {
+        return (serverChannel == null) ? -1 : serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return the number of open connections across all event loops
+     */
+    public int getConnectionCount() {
+        int count = 0;
+        for (EventLoop loop : loops) {
+            if (loop != null) {
+                count += loop.connectionCount;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Stops the gateway and closes every connection.
+     */
+    public synchronized void close() {
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            // Nothing useful to do
+        }
+        for (EventLoop loop : loops) {
+            if (loop != null) {
+                loop.running = false;
+                loop.selector.wakeup();
+            }
+        }
+    }
+
+    /**
+     * One client: its channel, its pooled buffers and its game.
+     */
+    private static class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in;
+        final ByteBuffer out;
+        SelectionKey key;
+        GameSession session;
+        int difficulty;
+        boolean awaitingAI;     // a MOVE is waiting for this round's AI batch
+        boolean dirty;          // has output queued for this round's flush
+        boolean closeAfterFlush;
+
+        Connection(SocketChannel channel, ByteBuffer in, ByteBuffer out) {
+            this.channel = channel;
+            this.in = in;
+            this.out = out;
+        }
+    }
+
+    /**
+     * A selector thread with its own connections and buffer pool.
+     */
+    private class EventLoop implements Runnable {
+        final Selector selector;
+        final DirectBufferPool buffers = new DirectBufferPool(BUFFER_SIZE, 256);
+        final Queue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+        final List<Connection> aiBatch = new ArrayList<>();
+        final List<Connection> dirty = new ArrayList<>();
+        final List<Connection> resume = new ArrayList<>();
+        final ComputerMoveStrategy[] strategies = new ComputerMoveStrategy[DIFFICULTIES];
+        volatile boolean running = true;
+        volatile int connectionCount;
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+            for (int i = 0; i < DIFFICULTIES; i++) {
+                strategies[i] = GameServer.strategyFor(GameServer.difficultyName(i));
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerIncoming();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        try {
+                            if (key.isAcceptable()) {
+                                accept();
+                            } else {
+                                Connection connection = (Connection) key.attachment();
+                                if (key.isReadable()) {
+                                    read(connection);
+                                }
+                                if (key.isValid() && key.isWritable()) {
+                                    markDirty(connection);
+                                }
+                            }
+                        } catch (CancelledKeyException e) {
+                            // Closed while in the ready set
+                        }
+                    }
+                    while (true) {
+                        runAIBatch();
+                        flush();
+                        if (resume.isEmpty()) {
+                            break;
+                        }
+                        // Requests held back while the output buffer was full
+                        List<Connection> held = new ArrayList<>(resume);
+                        resume.clear();
+                        for (Connection connection : held) {
+                            if (connection.channel.isOpen()) {
+                                decode(connection);
+                            }
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) {
+                    System.err.println("Gateway event loop failed: " + e);
+                }
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection) {
+                        close((Connection) key.attachment());
+                    }
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    // Nothing useful to do
+                }
+            }
+        }
+
+        void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                EventLoop loop = loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)];
+                if (loop == this) {
+                    register(channel);
+                } else {
+                    loop.incoming.add(channel);
+                    loop.selector.wakeup();
+                }
+            }
+        }
+
+        void registerIncoming() {
+            SocketChannel channel;
+            while ((channel = incoming.poll()) != null) {
+                try {
+                    register(channel);
+                } catch (IOException e) {
+                    closeChannel(channel);
+                }
+            }
+        }
+
+        void register(SocketChannel channel) throws IOException {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel, buffers.acquire(), buffers.acquire());
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connectionCount++;
+        }
+
+        void read(Connection connection) {
+            int count;
+            try {
+                count = connection.channel.read(connection.in);
+            } catch (IOException e) {
+                count = -1;
+            }
+            if (count < 0) {
+                close(connection);
+                return;
+            }
+            decode(connection);
+        }
+
+        /**
+         * Handles every complete request in the input buffer, stopping at
+         * a MOVE whose AI reply is still to be computed this round.
+         */
+        void decode(Connection connection) {
+            ByteBuffer in = connection.in;
+            in.flip();
+            while (in.hasRemaining() && !connection.awaitingAI && !connection.closeAfterFlush) {
+                // Leave room to answer; the rest waits for the next write
+                if (connection.out.remaining() < RESPONSE_SIZE) {
+                    break;
+                }
+                byte op = in.get(in.position());
+                int length = (op == OP_NEW || op == OP_MOVE) ? 2 : 1;
+                if (in.remaining() < length) {
+                    break;
+                }
+                in.get();
+                byte arg = (length == 2) ? in.get() : 0;
+                handle(connection, op, arg);
+            }
+            in.compact();
+            markDirty(connection);
+        }
+
+        void handle(Connection connection, byte op, byte arg) {
+            GameSession session = connection.session;
+            switch (op) {
+                case OP_NEW:
+                    if (arg < 0 || arg >= DIFFICULTIES) {
+                        respond(connection, op, STATUS_BAD_REQUEST, NO_CELL);
+                        return;
+                    }
+                    connection.session = new GameSession(0, GameServer.difficultyName(arg), strategies[arg]);
+                    connection.difficulty = arg;
+                    respond(connection, op, STATUS_OK, NO_CELL);
+                    return;
+                case OP_QUIT:
+                    respond(connection, op, STATUS_OK, NO_CELL);
+                    connection.closeAfterFlush = true;
+                    return;
+                case OP_MOVE:
+                case OP_BOARD:
+                case OP_RESET:
+                    break;
+                default:
+                    respond(connection, op, STATUS_BAD_REQUEST, NO_CELL);
+                    connection.closeAfterFlush = true;
+                    return;
+            }
+            if (session == null) {
+                respond(connection, op, STATUS_NO_GAME, NO_CELL);
+                return;
+            }
+            TicTacToeGame game = session.getGame();
+            if (op == OP_RESET) {
+                game.reset();
+                respond(connection, op, STATUS_OK, NO_CELL);
+                return;
+            }
+            if (op == OP_BOARD) {
+                respond(connection, op, STATUS_OK, NO_CELL);
+                return;
+            }
+
+            // MOVE
+            if (game.isGameOver()) {
+                respond(connection, op, STATUS_GAME_OVER, NO_CELL);
+                return;
+            }
+            if (!game.isHumanTurn()) {
+                respond(connection, op, STATUS_NOT_YOUR_TURN, NO_CELL);
+                return;
+            }
+            int cell = arg & 0xFF;
+            int row = cell / Board.SIZE;
+            int col = cell % Board.SIZE;
+            Board board = game.getBoard();
+            int status = (cell >= Board.SIZE * Board.SIZE) ? Board.OUT_OF_BOUNDS
+                : !board.isEmpty(row, col) ? Board.OCCUPIED : Board.PLACED;
+            if (status != Board.PLACED) {
+                respond(connection, op, (byte) status, NO_CELL);
+                return;
+            }
+            try {
+                game.applyHumanMove(row, col);
+            } catch (InvalidMoveException e) {
+                respond(connection, op, STATUS_NOT_YOUR_TURN, NO_CELL);
+                return;
+            }
+            if (game.isGameOver()) {
+                respond(connection, op, STATUS_OK, NO_CELL);
+            } else {
+                connection.awaitingAI = true;
+                aiBatch.add(connection);
+            }
+        }
+
+        /**
+         * Computes the AI replies for every MOVE decoded this round, then
+         * resumes decoding those connections' remaining requests (which
+         * may queue up another round).
+         */
+        void runAIBatch() {
+            while (!aiBatch.isEmpty()) {
+                List<Connection> batch = new ArrayList<>(aiBatch);
+                aiBatch.clear();
+                for (int difficulty = 0; difficulty < DIFFICULTIES; difficulty++) {
+                    runAIBatch(batch, difficulty);
+                }
+                for (Connection connection : batch) {
+                    if (connection.channel.isOpen()) {
+                        decode(connection);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Computes and applies the AI replies for one difficulty's games
+         * in the batch with a single chooseBatch() call.
+         */
+        void runAIBatch(List<Connection> batch, int difficulty) {
+            int count = 0;
+            for (Connection connection : batch) {
+                if (connection.difficulty == difficulty) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return;
+            }
+            Connection[] members = new Connection[count];
+            Board[] boards = new Board[count];
+            char[] marks = new char[count];
+            Move[] moves = new Move[count];
+            int i = 0;
+            for (Connection connection : batch) {
+                if (connection.difficulty == difficulty) {
+                    members[i] = connection;
+                    boards[i] = connection.session.getGame().getBoard();
+                    marks[i] = TicTacToeGame.AI_MARK;
+                    i++;
+                }
+            }
+            strategies[difficulty].chooseBatch(boards, marks, moves);
+
+            for (i = 0; i < count; i++) {
+                Connection connection = members[i];
+                byte aiCell = NO_CELL;
+                try {
+                    Move move = connection.session.getGame().applyAIMove(moves[i]);
+                    if (move != null) {
+                        aiCell = (byte) (move.getRow() * Board.SIZE + move.getCol());
+                    }
+                } catch (InvalidMoveException e) {
+                    System.err.println("AI move failed: " + e.getMessage());
+                }
+                connection.awaitingAI = false;
+                respond(connection, OP_MOVE, STATUS_OK, aiCell);
+            }
+        }
+
+        void respond(Connection connection, byte op, byte status, byte aiCell) {
+            ByteBuffer out = connection.out;
+            GameSession session = connection.session;
+            out.put(op).put(status).put(stateOf(session)).put(aiCell);
+            if (session == null) {
+                out.putShort((short) 0).putShort((short) 0);
+            } else {
+                Board board = session.getGame().getBoard();
+                out.putShort((short) board.getMarkMask(Board.X)).putShort((short) board.getMarkMask(Board.O));
+            }
+        }
+
+        void markDirty(Connection connection) {
+            if (!connection.dirty && (connection.out.position() > 0 || connection.closeAfterFlush)) {
+                connection.dirty = true;
+                dirty.add(connection);
+            }
+        }
+
+        /**
+         * Writes pending responses. Connections whose socket buffer is full
+         * wait for OP_WRITE; the others go back to reading only.
+         */
+        void flush() {
+            for (Connection connection : dirty) {
+                connection.dirty = false;
+                if (!connection.channel.isOpen()) {
+                    continue;
+                }
+                ByteBuffer out = connection.out;
+                out.flip();
+                try {
+                    connection.channel.write(out);
+                } catch (IOException e) {
+                    close(connection);
+                    continue;
+                }
+                out.compact();
+                if (out.position() > 0) {
+                    connection.key.interestOps(SelectionKey.OP_WRITE);
+                } else if (connection.closeAfterFlush) {
+                    close(connection);
+                } else {
+                    connection.key.interestOps(SelectionKey.OP_READ);
+                    if (connection.in.position() > 0) {
+                        resume.add(connection);
+                    }
+                }
+            }
+            dirty.clear();
+        }
+
+        void close(Connection connection) {
+            if (!connection.channel.isOpen()) {
+                return;
+            }
+            connection.key.cancel();
+            closeChannel(connection.channel);
+            buffers.release(connection.in);
+            buffers.release(connection.out);
+            connectionCount--;
+        }
+    }
+
+    private static byte stateOf(GameSession session) {
+        if (session == null) {
+            return STATE_NO_GAME;
+        }
+        TicTacToeGame game = session.getGame();
+        if (!game.isGameOver()) {
+            return game.isHumanTurn() ? STATE_PLAYING : STATE_THINKING;
+        }
+        switch (game.getGameResult()) {
+            case "WIN":
+                return STATE_WIN;
+            case "LOSS":
+                return STATE_LOSS;
+            default:
+                return STATE_TIE;
+        }
+    }
+
+    private static void closeChannel(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing useful to do
+        }
+    }
+
+    /**
+     * Runs the gateway until the process is stopped.
+     * @param args optional port (default 9192) and number of event loops (default 1)
+     */
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : GameServer.DEFAULT_PORT + 1;
+        int loops = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+        NioGameGateway gateway = new NioGameGateway(port, loops);
+        gateway.start();
+        System.out.println("Tic-Tac-Toe binary gateway listening on "
+            + InetAddress.getLoopbackAddress().getHostAddress() + ":" + gateway.getPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(gateway::close, "nio-gateway-shutdown"));
+        // The event loop threads are daemons; keep the process alive
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            gateway.close();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package tictactoe;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded version of MinimaxStrategy.
+ * The top levels of the game tree are split into tasks on a ForkJoinPool;
+ * below the split depth each task runs the normal sequential alpha-beta
+ * search. All workers share MinimaxStrategy's transposition table.
+ *
+ * Split nodes follow the "young brothers wait" rule: the first child is
+ * searched alone, and only then are its brothers forked, with the alpha-beta
+ * window it narrowed (and not at all if it caused a cutoff). That keeps the
+ * parallel search from exploring much more than the sequential one.
+ *
+ * The first root move gets an exact score and the others are searched for
+ * anything strictly better, so the first best move in static order wins
+ * and the chosen move is the same as MinimaxStrategy's no matter how many
+ * threads are used. Boards larger than 3x3 are searched like
+ * MinimaxStrategy does, by iterative deepening within a time budget, with
+ * open lines scored at the depth limit.
+ *
+ * Interrupting the thread that called choose() stops every task; choose()
+ * then returns null.
+ */
+public class ParallelMinimaxStrategy implements ComputerMoveStrategy {
+
+    /** Levels below the root that are split into parallel tasks. */
+    public static final int DEFAULT_SPLIT_DEPTH = 2;
+
+    /** One sequential searcher per worker thread. */
+    private static final ThreadLocal<MinimaxStrategy> SEARCHERS =
+        ThreadLocal.withInitial(MinimaxStrategy::new);
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final LongAdder nodesExplored = new LongAdder();
+    private int lastDepth;
+
+    // Settings for the current iteration, read by every task
+    private volatile int plyLimit;
+    private volatile long deadline;
+    private final AtomicBoolean stop = new AtomicBoolean();
+
+    /**
+     * Creates a parallel strategy using one thread per available processor.
+     */
+    public ParallelMinimaxStrategy() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a parallel strategy with the given number of worker threads.
+     * @param parallelism the pool size
+     */
+    public ParallelMinimaxStrategy(int parallelism) {
+        this(parallelism, DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * Creates a parallel strategy with the given pool size and split depth.
+     * @param parallelism the pool size
+     * @param splitDepth how many levels below the root are split into tasks
+     */
+    public ParallelMinimaxStrategy(int parallelism, int splitDepth) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.splitDepth = Math.max(0, splitDepth);
+    }
+
+    /**
+     * Searches the whole game tree on the classic board. Larger boards are
+     * searched with iterative deepening for DEFAULT_LARGE_BOARD_MILLIS.
+     */
+    @Override
+    public Move choose(Board board, char mark) {
+        if (!board.isClassic()) {
+            return choose(board, mark, MinimaxStrategy.DEFAULT_LARGE_BOARD_MILLIS);
+        }
+        nodesExplored.reset();
+        int remaining = MinimaxStrategy.remainingCells(board);
+        int[] cells = SEARCHERS.get().candidates(board);
+        int[] scores = searchRoot(board, mark, cells, remaining, 0);
+        lastDepth = (scores == null) ? 0 : remaining;
+        return bestMove(board, cells, scores);
+    }
+
+    /**
+     * Chooses a move within a time budget using iterative deepening, as
+     * MinimaxStrategy does. The 1-ply search always completes unless the
+     * caller is interrupted.
+     */
+    @Override
+    public Move choose(Board board, char mark, long timeBudgetMillis) {
+        long budgetEnd = System.nanoTime() + Math.max(0, timeBudgetMillis) * 1_000_000L;
+        nodesExplored.reset();
+        int remaining = MinimaxStrategy.remainingCells(board);
+        int winScore = MinimaxStrategy.winScore(board);
+        int[] cells = SEARCHERS.get().candidates(board);
+
+        int[] bestScores = null;
+        lastDepth = 0;
+        for (int plies = 1; plies <= remaining; plies++) {
+            if (plies > 1 && System.nanoTime() >= budgetEnd) {
+                break;
+            }
+            int[] scores = searchRoot(board, mark, cells, plies, (plies > 1) ? budgetEnd : 0);
+            if (scores == null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return null; // Cancelled; nobody wants the move
+                }
+                break;
+            }
+            bestScores = scores;
+            lastDepth = plies;
+            if (Math.abs(max(scores)) >= winScore - remaining) {
+                break; // A forced win or loss was found; deeper won't change it
+            }
+        }
+        return bestMove(board, cells, bestScores);
+    }
+
+    /**
+     * Scores the root moves to the given depth on the pool.
+     * @return one score per cell, or null if the search was stopped
+     */
+    private int[] searchRoot(Board board, char mark, int[] cells, int plies, long deadline) {
+        if (cells.length == 0 || board.isGameOver()) {
+            return null;
+        }
+        this.plyLimit = plies;
+        this.deadline = deadline;
+        stop.set(false);
+        ForkJoinTask<int[]> task = pool.submit(new RootTask(board.copy(), mark, cells));
+        int[] scores = null;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                scores = task.get();
+                break;
+            } catch (InterruptedException e) {
+                // Cancelled: stop the tasks, but wait for them to finish
+                interrupted = true;
+                stop.set(true);
+            } catch (ExecutionException e) {
+                stop.set(true);
+                throw new IllegalStateException("Minimax task failed", e.getCause());
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return stop.get() ? null : scores;
+    }
+
+    /**
+     * Picks the first move in static order with the highest score.
+     */
+    private static Move bestMove(Board board, int[] cells, int[] scores) {
+        if (scores == null) {
+            return null;
+        }
+        int best = 0;
+        for (int i = 1; i < cells.length; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        return Move.of(cells[best] / board.getSize(), cells[best] % board.getSize());
+    }
+
+    private static int max(int[] scores) {
+        int max = Integer.MIN_VALUE;
+        for (int score : scores) {
+            max = Math.max(max, score);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of positions examined by the last call to choose().
+     * @return node count summed over all workers
+     */
+    public long getNodesExplored() {
+        return nodesExplored.sum();
+    }
+
+    /**
+     * Returns the depth of the last completed search.
+     * @return plies searched, counting the root move
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * Returns the number of worker threads.
+     * @return the pool size
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Stops the worker threads. The strategy cannot be used afterwards.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String getName() {
+        return "Impossible (Parallel Minimax)";
+    }
+
+    /**
+     * Scores every root move: the first one exactly, then the others in
+     * parallel for anything strictly better. A later move that is not
+     * better gets a score no higher than the first move's.
+     */
+    private class RootTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final char aiMark;
+        private final int[] cells;
+
+        RootTask(Board board, char aiMark, int[] cells) {
+            this.board = board;
+            this.aiMark = aiMark;
+            this.cells = cells;
+        }
+
+        @Override
+        protected int[] compute() {
+            ParallelMinimaxStrategy owner = ParallelMinimaxStrategy.this;
+            int[] scores = new int[cells.length];
+            scores[0] = SearchTask.child(board, cells[0], aiMark, aiMark, 0, false,
+                Integer.MIN_VALUE, Integer.MAX_VALUE, owner).invoke();
+            SearchTask[] tasks = new SearchTask[cells.length];
+            for (int i = 1; i < cells.length && !stop.get(); i++) {
+                tasks[i] = SearchTask.child(board, cells[i], aiMark, aiMark, 0, false,
+                    scores[0], Integer.MAX_VALUE, owner);
+                tasks[i].fork();
+            }
+            for (int i = 1; i < cells.length; i++) {
+                scores[i] = (tasks[i] == null) ? Integer.MIN_VALUE : tasks[i].join();
+            }
+            return scores;
+        }
+    }
+
+    /**
+     * Computes the Minimax score of one position within an alpha-beta
+     * window, splitting into child tasks until the split depth is reached.
+     */
+    private static class SearchTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final char aiMark;
+        private final int depth;
+        private final boolean isMaximizing;
+        private final int alpha;
+        private final int beta;
+        private final ParallelMinimaxStrategy owner;
+
+        private SearchTask(Board board, char aiMark, int depth, boolean isMaximizing,
+                           int alpha, int beta, ParallelMinimaxStrategy owner) {
+            this.board = board;
+            this.aiMark = aiMark;
+            this.depth = depth;
+            this.isMaximizing = isMaximizing;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.owner = owner;
+        }
+
+        /**
+         * Creates the task for the position after playing a cell, which
+         * must be empty.
+         */
+        static SearchTask child(Board parent, int cell, char mark, char aiMark, int depth,
+                                boolean isMaximizing, int alpha, int beta, ParallelMinimaxStrategy owner) {
+            Board board = parent.copy();
+            int size = board.getSize();
+            if (board.tryPlaceMark(cell / size, cell % size, mark) != Board.PLACED) {
+                // Cannot happen: only candidate cells are played
+                throw new IllegalStateException("Cell " + cell + " is not playable");
+            }
+            return new SearchTask(board, aiMark, depth, isMaximizing, alpha, beta, owner);
+        }
+
+        @Override
+        protected Integer compute() {
+            if (owner.stop.get()) {
+                return 0;
+            }
+            MinimaxStrategy searcher = SEARCHERS.get();
+            int[] cells = (depth >= owner.splitDepth || depth + 1 >= owner.plyLimit || board.isGameOver())
+                ? null : searcher.candidates(board);
+            if (cells == null || cells.length == 0) {
+                int score = searcher.evaluate(board, aiMark, depth, isMaximizing, alpha, beta,
+                    owner.plyLimit, owner.deadline, owner.stop);
+                owner.nodesExplored.add(searcher.getNodesExplored());
+                return score;
+            }
+            owner.nodesExplored.increment();
+
+            char humanMark = (aiMark == Board.X) ? Board.O : Board.X;
+            char mark = isMaximizing ? aiMark : humanMark;
+            int low = alpha;
+            int high = beta;
+
+            // Young brothers wait: the eldest child narrows the window first
+            int bestScore = child(board, cells[0], mark, aiMark, depth + 1, !isMaximizing,
+                low, high, owner).invoke();
+            if (isMaximizing) {
+                low = Math.max(low, bestScore);
+            } else {
+                high = Math.min(high, bestScore);
+            }
+            if (low >= high) {
+                return bestScore;
+            }
+
+            SearchTask[] tasks = new SearchTask[cells.length];
+            for (int i = 1; i < cells.length && !owner.stop.get(); i++) {
+                tasks[i] = child(board, cells[i], mark, aiMark, depth + 1, !isMaximizing,
+                    low, high, owner);
+                tasks[i].fork();
+            }
+            for (int i = 1; i < cells.length; i++) {
+                if (tasks[i] != null) {
+                    int score = tasks[i].join();
+                    bestScore = isMaximizing ? Math.max(score, bestScore)
+                                             : Math.min(score, bestScore);
+                }
+            }
+            return bestScore;
+        }
+    }
+}
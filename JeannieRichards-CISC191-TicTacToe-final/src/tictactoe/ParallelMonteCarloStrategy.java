@@ -0,0 +1,505 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multi-threaded Monte Carlo Tree Search where all worker threads grow one
+ * shared tree (tree parallelism).
+ *
+ * Node statistics are lock-free atomic counters. While a worker walks down
+ * the tree it adds a virtual loss to every node on its path, which makes
+ * that path look worse to the other workers until the real result is
+ * backed up, so they spread out over different branches instead of all
+ * exploring the same one.
+ *
+ * Each worker has its own board copy and random generator and runs on a
+ * thread started for that choose() call, so an unused strategy holds no
+ * threads. The tree is a pool of primitive arrays allocated on the first
+ * search and grown when a later one needs more room, never beyond the
+ * configured capacity. A search only needs as many nodes as its playouts
+ * can expand, so small budgets keep the pool small.
+ *
+ * Interrupting the thread that called choose() stops every worker at its
+ * next playout; choose() waits for them before returning the best move so
+ * far, so the tree is never shared with a later search.
+ */
+public class ParallelMonteCarloStrategy implements ComputerMoveStrategy {
+
+    /** Default largest number of tree nodes the shared pool can hold. */
+    public static final int DEFAULT_MAX_NODES = 1 << 20;
+
+    /** UCT exploration constant (about sqrt(2)). */
+    private static final double EXPLORATION = 1.41;
+
+    /** Visits added along a worker's path while its playout is in flight. */
+    private static final int VIRTUAL_LOSS = 3;
+
+    /** How many playouts a worker runs between clock checks. */
+    private static final int CLOCK_CHECK_INTERVAL = 64;
+
+    // Expansion state per node
+    private static final int LEAF = 0;
+    private static final int EXPANDING = 1;
+    private static final int EXPANDED = 2;
+
+    private final int threads;
+    private final SplittableRandom seedSource;
+    private int playoutBudget;
+    private long timeBudgetMillis;
+
+    // Shared node pool, empty until the first search. Scores are kept in half
+    // points (win 2, draw 1) so they fit an atomic long; each node scores for
+    // the player who moved into it. capacity is the current array length.
+    private final int maxNodes;
+    private int capacity;
+    private int[] moveCell;
+    private AtomicIntegerArray visits;
+    private AtomicLongArray halfPoints;
+    private AtomicIntegerArray state;
+    private int[] firstChild;
+    private int[] childCount;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+    private final AtomicInteger playoutsStarted = new AtomicInteger();
+    private volatile boolean stopRequested;
+
+    private int lastPlayouts;
+    private double lastPlayoutsPerSecond;
+
+    /**
+     * Creates a tree-parallel MCTS strategy with one worker per processor
+     * and the default playout budget.
+     */
+    public ParallelMonteCarloStrategy() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a tree-parallel MCTS strategy with the default playout budget.
+     * @param threads the number of worker threads
+     */
+    public ParallelMonteCarloStrategy(int threads) {
+        this(threads, DEFAULT_MAX_NODES, new SplittableRandom());
+    }
+
+    /**
+     * Creates a tree-parallel MCTS strategy with a specific seed (for testing).
+     * Results are only reproducible with a single thread.
+     * @param threads the number of worker threads
+     * @param maxNodes largest capacity of the shared tree
+     * @param seed the random seed
+     */
+    public ParallelMonteCarloStrategy(int threads, int maxNodes, long seed) {
+        this(threads, maxNodes, new SplittableRandom(seed));
+    }
+
+    private ParallelMonteCarloStrategy(int threads, int maxNodes, SplittableRandom seedSource) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        if (maxNodes < 2) {
+            throw new IllegalArgumentException("Tree needs room for at least 2 nodes: " + maxNodes);
+        }
+        this.threads = threads;
+        this.seedSource = seedSource;
+        this.maxNodes = maxNodes;
+        this.playoutBudget = MonteCarloStrategy.DEFAULT_PLAYOUTS * threads;
+    }
+
+    /**
+     * Sets the maximum number of playouts per move, across all workers
+     * (0 for no limit).
+     * @param playouts the playout budget
+     */
+    public void setPlayoutBudget(int playouts) {
+        if (playouts < 0) {
+            throw new IllegalArgumentException("Playout budget cannot be negative: " + playouts);
+        }
+        this.playoutBudget = playouts;
+    }
+
+    /**
+     * Sets the maximum wall-clock time per move (0 for no limit).
+     * When both budgets are set, the search stops at whichever runs out first.
+     * @param millis the time budget in milliseconds
+     */
+    public void setTimeBudgetMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative: " + millis);
+        }
+        this.timeBudgetMillis = millis;
+    }
+
+    /**
+     * @return the number of worker threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the number of playouts run by the last call to choose()
+     */
+    public int getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * @return the playout rate of the last call to choose()
+     */
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    /**
+     * Searches until the time budget runs out, ignoring the playout budget.
+     */
+    @Override
+    public Move choose(Board board, char mark, long timeBudgetMillis) {
+        int savedPlayouts = playoutBudget;
+        long savedMillis = this.timeBudgetMillis;
+        playoutBudget = 0;
+        this.timeBudgetMillis = Math.max(1, timeBudgetMillis);
+        try {
+            return choose(board, mark);
+        } finally {
+            playoutBudget = savedPlayouts;
+            this.timeBudgetMillis = savedMillis;
+        }
+    }
+
+    @Override
+    public Move choose(Board board, char mark) {
+        if (board.isGameOver()) {
+            return null;
+        }
+        if (playoutBudget == 0 && timeBudgetMillis == 0) {
+            throw new IllegalStateException("MCTS needs a playout or time budget");
+        }
+
+        ensureCapacity(board);
+        nodeCount.set(0);
+        playoutsStarted.set(0);
+        int root = allocate(1);
+        initNode(root, -1);
+
+        long start = System.nanoTime();
+        long deadline = (timeBudgetMillis > 0) ? start + timeBudgetMillis * 1_000_000L : 0;
+        List<Callable<Integer>> tasks = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            tasks.add(new Worker(board.copy(), mark, seedSource.split(), deadline));
+        }
+
+        stopRequested = false;
+        List<FutureTask<Integer>> results = new ArrayList<>(threads);
+        for (Callable<Integer> task : tasks) {
+            FutureTask<Integer> result = new FutureTask<>(task);
+            Thread thread = new Thread(result, "mcts-worker");
+            thread.setDaemon(true);
+            thread.start();
+            results.add(result);
+        }
+        int playouts = 0;
+        boolean interrupted = false;
+        for (FutureTask<Integer> result : results) {
+            while (true) {
+                try {
+                    playouts += result.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // Cancelled: stop the workers, but wait for them to let go of the tree
+                    interrupted = true;
+                    stopRequested = true;
+                } catch (ExecutionException e) {
+                    stopRequested = true;
+                    throw new IllegalStateException("MCTS worker failed", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        lastPlayouts = playouts;
+        lastPlayoutsPerSecond = playouts * 1e9 / elapsed;
+
+        // The most visited move is the most reliable one
+        if (state.get(root) != EXPANDED) {
+            return null;
+        }
+        int best = firstChild[root];
+        for (int i = 1; i < childCount[root]; i++) {
+            int child = firstChild[root] + i;
+            if (visits.get(child) > visits.get(best)) {
+                best = child;
+            }
+        }
+        int size = board.getSize();
+        return Move.of(moveCell[best] / size, moveCell[best] % size);
+    }
+
+    /**
+     * Makes sure the pool can hold every node this search could create:
+     * each playout expands at most one node, adding one child per empty cell.
+     * Without a playout budget, or when the bound exceeds maxNodes, the pool
+     * is grown to maxNodes.
+     */
+    private void ensureCapacity(Board board) {
+        long cells = board.getSize() * board.getSize();
+        long needed = (playoutBudget > 0) ? 1 + playoutBudget * cells : maxNodes;
+        int size = (int) Math.min(needed, maxNodes);
+        if (size <= capacity) {
+            return;
+        }
+        capacity = size;
+        moveCell = new int[size];
+        visits = new AtomicIntegerArray(size);
+        halfPoints = new AtomicLongArray(size);
+        state = new AtomicIntegerArray(size);
+        firstChild = new int[size];
+        childCount = new int[size];
+    }
+
+    /**
+     * Reserves a block of nodes from the pool.
+     * @return the first node of the block, or -1 if the pool is full
+     */
+    private int allocate(int count) {
+        int first = nodeCount.getAndAdd(count);
+        return (first + count <= capacity) ? first : -1;
+    }
+
+    private void initNode(int node, int cell) {
+        moveCell[node] = cell;
+        visits.set(node, 0);
+        halfPoints.set(node, 0);
+        childCount[node] = 0;
+        state.set(node, LEAF);
+    }
+
+    /**
+     * Measures the playout rate at different thread counts and reports
+     * how close it comes to scaling linearly with the number of threads.
+     * @param board the position to search
+     * @param mark the side to move
+     * @param threadCounts the thread counts to try
+     * @param millisPerRun the time budget for each run
+     * @return one line per thread count: playouts/second, speedup and efficiency
+     */
+    public static String measureScaling(Board board, char mark, int[] threadCounts, long millisPerRun) {
+        StringBuilder sb = new StringBuilder("threads  playouts/s  speedup  efficiency\n");
+        double baseline = 0;
+        for (int count : threadCounts) {
+            ParallelMonteCarloStrategy strategy = new ParallelMonteCarloStrategy(count);
+            strategy.setPlayoutBudget(0);
+            strategy.setTimeBudgetMillis(millisPerRun);
+            strategy.choose(board, mark);
+            double rate = strategy.getLastPlayoutsPerSecond();
+            if (baseline == 0) {
+                baseline = rate / count;
+            }
+            double speedup = rate / baseline;
+            sb.append(String.format("%7d  %10.0f  %7.2f  %9.0f%%%n",
+                count, rate, speedup, 100.0 * speedup / count));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String getName() {
+        return "Monte Carlo (Parallel MCTS)";
+    }
+
+    /**
+     * One worker thread's share of the search. Returns its playout count.
+     */
+    private class Worker implements Callable<Integer> {
+        private final Board board;
+        private final char mark;
+        private final SplittableRandom random;
+        private final long deadline;
+        private final int[] path;
+        private final int[] emptyCells;
+
+        Worker(Board board, char mark, SplittableRandom random, long deadline) {
+            this.board = board;
+            this.mark = mark;
+            this.random = random;
+            this.deadline = deadline;
+            int cells = board.getSize() * board.getSize();
+            this.path = new int[cells + 1];
+            this.emptyCells = new int[cells];
+        }
+
+        @Override
+        public Integer call() {
+            int played = 0;
+            while (true) {
+                if (playoutBudget > 0 && playoutsStarted.getAndIncrement() >= playoutBudget) {
+                    break;
+                }
+                if (deadline != 0 && played % CLOCK_CHECK_INTERVAL == 0
+                        && played > 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                if (stopRequested || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                runPlayout();
+                played++;
+            }
+            return played;
+        }
+
+        /**
+         * Select with virtual loss, expand, simulate, then replace the
+         * virtual loss with the real result.
+         */
+        private void runPlayout() {
+            char toMove = mark;
+            int depth = 0;
+            int node = 0; // the root is always node 0
+            path[0] = node;
+            visits.addAndGet(node, VIRTUAL_LOSS);
+
+            // Selection
+            while (state.get(node) == EXPANDED) {
+                node = selectChild(node);
+                play(node, toMove);
+                toMove = other(toMove);
+                path[++depth] = node;
+                visits.addAndGet(node, VIRTUAL_LOSS);
+            }
+
+            // Expansion: whichever worker wins the race expands the leaf;
+            // the others simply run their playout from it
+            if (!board.isGameOver() && (visits.get(node) > VIRTUAL_LOSS || node == 0)
+                    && state.compareAndSet(node, LEAF, EXPANDING)) {
+                if (expand(node)) {
+                    node = selectChild(node);
+                    play(node, toMove);
+                    toMove = other(toMove);
+                    path[++depth] = node;
+                    visits.addAndGet(node, VIRTUAL_LOSS);
+                }
+            }
+
+            char winner = randomPlayout(toMove);
+
+            // Backpropagation
+            char mover = (depth % 2 == 0) ? other(mark) : mark;
+            for (int i = depth; i >= 0; i--) {
+                int n = path[i];
+                visits.addAndGet(n, 1 - VIRTUAL_LOSS);
+                if (winner == mover) {
+                    halfPoints.addAndGet(n, 2);
+                } else if (winner == Board.EMPTY) {
+                    halfPoints.addAndGet(n, 1);
+                }
+                mover = other(mover);
+            }
+
+            for (int i = 0; i < depth; i++) {
+                board.undoMark();
+            }
+        }
+
+        /**
+         * Picks the child with the highest UCT value; unvisited children
+         * first. In-flight playouts count as losses through the virtual loss.
+         */
+        private int selectChild(int node) {
+            double logParent = Math.log(Math.max(1, visits.get(node)));
+            int best = firstChild[node];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < childCount[node]; i++) {
+                int child = firstChild[node] + i;
+                int n = visits.get(child);
+                if (n == 0) {
+                    return child;
+                }
+                double value = halfPoints.get(child) / (2.0 * n)
+                    + EXPLORATION * Math.sqrt(logParent / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Adds one child per empty cell to a leaf this worker has claimed.
+         * If the pool is full the node stays a leaf for good.
+         * @return true if the node now has children
+         */
+        private boolean expand(int node) {
+            int count = 0;
+            for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+                emptyCells[count++] = cell;
+            }
+            int first = allocate(count);
+            if (first < 0) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                initNode(first + i, emptyCells[i]);
+            }
+            firstChild[node] = first;
+            childCount[node] = count;
+            state.set(node, EXPANDED); // publishes the children to other workers
+            return true;
+        }
+
+        /**
+         * Plays random moves until the game ends, then undoes them.
+         * @return the winning mark, or EMPTY for a draw
+         */
+        private char randomPlayout(char toMove) {
+            int remaining = 0;
+            if (!board.isGameOver()) {
+                for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+                    emptyCells[remaining++] = cell;
+                }
+            }
+
+            int played = 0;
+            while (remaining > 0 && !board.isGameOver()) {
+                int pick = random.nextInt(remaining);
+                int cell = emptyCells[pick];
+                emptyCells[pick] = emptyCells[--remaining];
+                placeCell(cell, toMove);
+                toMove = other(toMove);
+                played++;
+            }
+
+            char winner = board.getWinner();
+            for (int i = 0; i < played; i++) {
+                board.undoMark();
+            }
+            return winner;
+        }
+
+        private void play(int node, char mark) {
+            placeCell(moveCell[node], mark);
+        }
+
+        private void placeCell(int cell, char mark) {
+            if (board.tryPlaceMark(cell / board.getSize(), cell % board.getSize(), mark) != Board.PLACED) {
+                // Cannot happen: only empty cells are played
+                throw new IllegalStateException("Cell " + cell + " is not playable");
+            }
+        }
+    }
+
+    private static char other(char mark) {
+        return (mark == Board.X) ? Board.O : Board.X;
+    }
+}
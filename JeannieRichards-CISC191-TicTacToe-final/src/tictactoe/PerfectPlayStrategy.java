@@ -0,0 +1,238 @@
+package tictactoe;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Unbeatable AI strategy backed by a solved-game table.
+ * Every position reachable with X moving first is indexed by its base-3
+ * encoding (Board.encode()) and mapped to the best move and its score,
+ * so choosing a move is a single array lookup with no search.
+ *
+ * The table picks exactly the moves MinimaxStrategy would: the first move
+ * in center/corner/edge order with the best depth-adjusted score.
+ *
+ * The table ships as the binary resource perfect-play.bin (written by
+ * main()). If the resource is missing or damaged, the table is solved
+ * in memory on first use instead. Only the classic 3x3 board is supported.
+ */
+public class PerfectPlayStrategy implements ComputerMoveStrategy {
+
+    /** Name of the bundled table resource, next to this class. */
+    public static final String RESOURCE_NAME = "perfect-play.bin";
+
+    private static final int MAGIC = 0x54545450; // "TTTP"
+    private static final int NO_MOVE = -1;
+    private static final int WIN_SCORE = 10;
+
+    // BEST_MOVES[code] is the best cell for the side to move (or NO_MOVE);
+    // SCORES[code] is that move's score, in MinimaxStrategy's scale
+    private static final byte[] BEST_MOVES = new byte[Board.ENCODING_COUNT];
+    private static final byte[] SCORES = new byte[Board.ENCODING_COUNT];
+
+    static {
+        if (!loadBundledTable()) {
+            solve();
+        }
+    }
+
+    /** Used when the board is not a position the table covers. */
+    private MinimaxStrategy fallback;
+
+    @Override
+    public Move choose(Board board, char mark) {
+        MinimaxStrategy.requireClassic(board);
+        int code = lookupCode(board, mark);
+        if (code < 0) {
+            // Not reachable from a normal game (e.g. a side moved twice)
+            if (fallback == null) {
+                fallback = new MinimaxStrategy();
+            }
+            return fallback.choose(board, mark);
+        }
+        int cell = BEST_MOVES[code];
+        return (cell == NO_MOVE) ? null : Move.of(cell / Board.SIZE, cell % Board.SIZE);
+    }
+
+    /**
+     * Looks up a whole batch in two passes: first every board is reduced to
+     * its table slot, then the slots are read back to back from the tables.
+     * Boards the table does not cover go through choose() as usual.
+     */
+    @Override
+    public void chooseBatch(Board[] boards, char[] marks, Move[] moves) {
+        ComputerMoveStrategy.checkBatch(boards, marks, moves);
+        int[] codes = new int[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            codes[i] = lookupCode(boards[i], marks[i]);
+        }
+        for (int i = 0; i < boards.length; i++) {
+            int code = codes[i];
+            if (code < 0) {
+                moves[i] = choose(boards[i], marks[i]);
+            } else {
+                int cell = BEST_MOVES[code];
+                moves[i] = (cell == NO_MOVE) ? null : Move.of(cell / Board.SIZE, cell % Board.SIZE);
+            }
+        }
+    }
+
+    /**
+     * Returns the score of the best move for the given side, on
+     * MinimaxStrategy's scale (positive: forced win, 0: draw, negative:
+     * forced loss).
+     * @param board the position
+     * @param mark the side to move
+     * @return the score, or 0 if the position is over or not covered
+     */
+    public static int getScore(Board board, char mark) {
+        int code = lookupCode(board, mark);
+        return (code < 0) ? 0 : SCORES[code];
+    }
+
+    /**
+     * Finds the table slot for the given side to move. The table assumes
+     * X moved first; for games where O moved first the colors are swapped.
+     * @return the slot, or -1 if the position is not covered
+     */
+    private static int lookupCode(Board board, char mark) {
+        if (!board.isClassic()) {
+            return -1;
+        }
+        int xCount = board.countMarks(Board.X);
+        int oCount = board.countMarks(Board.O);
+        if ((mark == Board.X && xCount == oCount) || (mark == Board.O && xCount == oCount + 1)) {
+            return board.encode();
+        }
+        if ((mark == Board.O && xCount == oCount) || (mark == Board.X && oCount == xCount + 1)) {
+            return board.encodeSwapped();
+        }
+        return -1;
+    }
+
+    /**
+     * Loads the bundled table resource.
+     * @return true if a valid table was loaded
+     */
+    private static boolean loadBundledTable() {
+        try (InputStream in = PerfectPlayStrategy.class.getResourceAsStream(RESOURCE_NAME)) {
+            if (in == null) {
+                return false;
+            }
+            DataInputStream data = new DataInputStream(in);
+            if (data.readInt() != MAGIC || data.readInt() != Board.ENCODING_COUNT) {
+                return false;
+            }
+            data.readFully(BEST_MOVES);
+            data.readFully(SCORES);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Fills the table by solving every position reachable from the empty board.
+     */
+    private static void solve() {
+        boolean[] solved = new boolean[Board.ENCODING_COUNT];
+        Arrays.fill(BEST_MOVES, (byte) NO_MOVE);
+        Arrays.fill(SCORES, (byte) 0);
+        solve(new Board(), Board.X, solved);
+    }
+
+    /**
+     * Solves one position and its subtree, recording the best move and score.
+     * Scores are the ones MinimaxStrategy gives its root moves: a win after
+     * d further plies scores 10 - d, a loss d - 10.
+     * @return the best score for the side to move
+     */
+    private static int solve(Board board, char toMove, boolean[] solved) {
+        int code = board.encode();
+        if (solved[code]) {
+            return SCORES[code];
+        }
+        char opponent = (toMove == Board.X) ? Board.O : Board.X;
+        int bestCell = NO_MOVE;
+        int bestScore = Integer.MIN_VALUE;
+
+        if (!board.isGameOver()) {
+            for (int cell : MinimaxStrategy.CLASSIC_ORDER) {
+                int row = cell / Board.SIZE;
+                int col = cell % Board.SIZE;
+                if (board.tryPlaceMark(row, col, toMove) != Board.PLACED) {
+                    continue;
+                }
+                int score;
+                if (board.checkWin(toMove)) {
+                    score = WIN_SCORE;
+                } else if (board.isFull()) {
+                    score = 0;
+                } else {
+                    // The opponent's best reply is one ply further from us
+                    score = -oneFurther(solve(board, opponent, solved));
+                }
+                board.undoMark();
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestCell = cell;
+                }
+            }
+        }
+
+        solved[code] = true;
+        BEST_MOVES[code] = (byte) bestCell;
+        SCORES[code] = (byte) (bestCell == NO_MOVE ? 0 : bestScore);
+        return SCORES[code];
+    }
+
+    /**
+     * Moves a score one ply further away: wins and losses both shrink toward 0.
+     */
+    private static int oneFurther(int score) {
+        if (score > 0) return score - 1;
+        if (score < 0) return score + 1;
+        return 0;
+    }
+
+    /**
+     * Writes the table in the format read by loadBundledTable().
+     * @param out the destination stream
+     * @throws IOException if writing fails
+     */
+    public static void writeTable(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(Board.ENCODING_COUNT);
+        data.write(BEST_MOVES);
+        data.write(SCORES);
+        data.flush();
+    }
+
+    @Override
+    public String getName() {
+        return "Impossible (Perfect Play)";
+    }
+
+    /**
+     * Regenerates the bundled table resource.
+     * @param args optional output path (defaults to src/tictactoe/perfect-play.bin)
+     */
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(args.length > 0 ? args[0] : "src/tictactoe/" + RESOURCE_NAME);
+        // Solve from scratch rather than re-saving whatever was loaded
+        solve();
+        try (OutputStream out = Files.newOutputStream(output)) {
+            writeTable(out);
+        }
+        System.out.println("Wrote " + output);
+    }
+}
@@ -0,0 +1,71 @@
+package tictactoe;
+
+/**
+ * One player's line on the Leaderboard: their record and Elo rating.
+ * Instances handed out by Leaderboard are snapshots and do not change.
+ */
+public class PlayerStanding {
+
+    private final String name;
+    private long wins;
+    private long losses;
+    private long ties;
+    private double rating;
+
+    /**
+     * Creates a standing with no games played.
+     * @param name the player's name
+     * @param rating the starting rating
+     */
+    PlayerStanding(String name, double rating) {
+        this.name = name;
+        this.rating = rating;
+    }
+
+    /**
+     * Counts one game and applies the rating change.
+     * @param score 1 for a win, 0.5 for a tie, 0 for a loss
+     * @param ratingChange the amount to add to the rating
+     */
+    void record(double score, double ratingChange) {
+        if (score == 1.0) {
+            wins++;
+        } else if (score == 0.0) {
+            losses++;
+        } else {
+            ties++;
+        }
+        rating += ratingChange;
+    }
+
+    /**
+     * Sets the record and rating read from a checkpoint.
+     */
+    void restore(long wins, long losses, long ties, double rating) {
+        this.wins = wins;
+        this.losses = losses;
+        this.ties = ties;
+        this.rating = rating;
+    }
+
+    /**
+     * @return an independent copy
+     */
+    PlayerStanding copy() {
+        PlayerStanding copy = new PlayerStanding(name, rating);
+        copy.restore(wins, losses, ties, rating);
+        return copy;
+    }
+
+    public String getName() { return name; }
+    public long getWins() { return wins; }
+    public long getLosses() { return losses; }
+    public long getTies() { return ties; }
+    public long getGames() { return wins + losses + ties; }
+    public double getRating() { return rating; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.0f (%d-%d-%d)", name, rating, wins, losses, ties);
+    }
+}
@@ -1,6 +1,5 @@
 package tictactoe;
 
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -28,15 +27,19 @@ public class RandomMoveStrategy implements ComputerMoveStrategy {
 
     @Override
     public Move choose(Board board, char mark) {
-        List<Move> emptyCells = board.getEmptyCells();
+        int emptyCount = board.getEmptyCount();
         
-        if (emptyCells.isEmpty()) {
+        if (emptyCount == 0) {
             return null; // No moves available
         }
         
-        // Pick a random empty cell
-        int index = random.nextInt(emptyCells.size());
-        return emptyCells.get(index);
+        // Pick a random empty cell, counting in row-major order
+        int skip = random.nextInt(emptyCount);
+        int cell = board.nextEmptyCell(0);
+        for (int i = 0; i < skip; i++) {
+            cell = board.nextEmptyCell(cell + 1);
+        }
+        return Move.of(cell / board.getSize(), cell % board.getSize());
     }
 
     @Override
@@ -0,0 +1,388 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming reader for CSV score files written by ScoreEntry.toCsv().
+ *
+ * Records are parsed straight from the file's bytes: quoted fields may
+ * hold commas, doubled quotes and line breaks, the move count and
+ * timestamp are read digit by digit, and malformed records are skipped
+ * without throwing. When reading from the start of the file, the first
+ * record (the header) is skipped.
+ *
+ * Large files are split into chunks that start on record boundaries, so
+ * a parallel stream parses the chunks on different threads. A boundary
+ * cannot just be the next line break, since a quoted name may contain
+ * one; instead the quotes before each chunk are counted (in parallel),
+ * and an odd count means the chunk starts inside a quoted field.
+ *
+ * Only those large files are memory-mapped. A file that fits in one chunk
+ * is read onto the heap, since a live mapping keeps the file from being
+ * deleted on some platforms (Windows), and the usual score file is small.
+ */
+public class ScoreCsvReader {
+
+    /** Files smaller than two chunks of this size are read as one chunk. */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    /** Largest chunk mapped at once. */
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+
+    private static final byte[] WIN = bytes("WIN");
+    private static final byte[] LOSS = bytes("LOSS");
+    private static final byte[] TIE = bytes("TIE");
+
+    /** Length of a timestamp in the "yyyy-MM-dd HH:mm:ss" format. */
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private final Path path;
+    private final long start;
+
+    /**
+     * Creates a reader for the given file. Nothing is opened until stream().
+     * @param path the CSV file
+     */
+    public ScoreCsvReader(Path path) {
+        this(path, 0);
+    }
+
+    /**
+     * Creates a reader for the part of a file after a given offset, which
+     * must be the start of a record (for example the file's earlier size).
+     * The header is only skipped when reading from offset 0.
+     * @param path the CSV file
+     * @param start the offset of the first record to read
+     */
+    public ScoreCsvReader(Path path, long start) {
+        if (start < 0) {
+            throw new IllegalArgumentException("Start offset cannot be negative: " + start);
+        }
+        this.path = path;
+        this.start = start;
+    }
+
+    /**
+     * Returns the file's entries in order. The file is read (or mapped)
+     * and split into chunks when this is called; call parallel() on the
+     * result to parse the chunks on several threads.
+     * @return the entries, oldest first
+     * @throws IOException if the file cannot be read
+     */
+    public Stream<ScoreEntry> stream() throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        // Mappings stay valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] starts = chunkStarts(channel, Math.min(start, channel.size()));
+            if (starts.length == 2) {
+                chunks.add(read(channel, starts[0], (int) (starts[1] - starts[0])));
+            } else {
+                for (int i = 0; i + 1 < starts.length; i++) {
+                    if (starts[i] < starts[i + 1]) {
+                        chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, starts[i], starts[i + 1] - starts[i]));
+                    }
+                }
+            }
+        }
+        return IntStream.range(0, chunks.size()).boxed().flatMap(i -> {
+            RecordParser parser = new RecordParser(chunks.get(i));
+            if (i == 0 && start == 0) {
+                parser.skipRecord(); // Header
+            }
+            return StreamSupport.stream(parser, false);
+        });
+    }
+
+    /**
+     * Splits the file from the given offset on into chunks that each
+     * start on a record.
+     * @return the chunk start offsets, followed by the file size
+     */
+    private static long[] chunkStarts(FileChannel channel, long from) throws IOException {
+        long end = channel.size();
+        long size = end - from;
+        int count = (int) Math.max(1, Math.min(size / MIN_CHUNK_SIZE,
+            Runtime.getRuntime().availableProcessors() * 4L));
+        count = (int) Math.max(count, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        long[] starts = new long[count + 1];
+        starts[0] = from;
+        if (count == 1) {
+            starts[1] = end;
+            return starts;
+        }
+
+        // Equal slices, and the number of quote characters in each
+        ByteBuffer[] slices = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long sliceStart = from + size * i / count;
+            long sliceEnd = from + size * (i + 1) / count;
+            slices[i] = channel.map(FileChannel.MapMode.READ_ONLY, sliceStart, sliceEnd - sliceStart);
+        }
+        int[] quotes = IntStream.range(0, count).parallel().map(i -> countQuotes(slices[i])).toArray();
+
+        // Each later chunk starts after the first line break in its slice
+        // that is outside quotes; a slice without one joins the chunk before
+        starts[count] = end;
+        boolean[] insideQuotes = new boolean[count];
+        for (int i = 1; i < count; i++) {
+            insideQuotes[i] = insideQuotes[i - 1] ^ (quotes[i - 1] % 2 == 1);
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int lineEnd = firstLineBreak(slices[i], insideQuotes[i]);
+            starts[i] = (lineEnd < 0) ? starts[i + 1] : from + size * i / count + lineEnd + 1;
+        }
+        return starts;
+    }
+
+    /**
+     * Reads part of a file into a heap buffer.
+     * @return the bytes read, fewer than length if the file ends first
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining() && channel.read(bytes, position + bytes.position()) >= 0) {
+            // Keep reading until the range is complete or the file ends
+        }
+        bytes.flip();
+        return bytes;
+    }
+
+    private static int countQuotes(ByteBuffer bytes) {
+        int count = 0;
+        for (int i = 0, limit = bytes.limit(); i < limit; i++) {
+            if (bytes.get(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first line break outside quotes.
+     * @return its index, or -1 if there is none
+     */
+    private static int firstLineBreak(ByteBuffer bytes, boolean insideQuotes) {
+        for (int i = 0, limit = bytes.limit(); i < limit; i++) {
+            byte b = bytes.get(i);
+            if (b == '"') {
+                insideQuotes = !insideQuotes;
+            } else if (b == '\n' && !insideQuotes) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses one CSV record.
+     * @param line the record, without its line break
+     * @return the entry, or null if the record is malformed
+     */
+    static ScoreEntry parse(String line) {
+        RecordParser parser = new RecordParser(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+        return parser.parseRecord();
+    }
+
+    /**
+     * Parses the records in one chunk, in order.
+     */
+    private static final class RecordParser extends Spliterators.AbstractSpliterator<ScoreEntry> {
+
+        private final ByteBuffer bytes;
+        private final int limit;
+        private int position;
+
+        // The current field, unquoted
+        private byte[] field = new byte[64];
+        private int fieldLength;
+
+        RecordParser(ByteBuffer bytes) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.bytes = bytes;
+            this.limit = bytes.limit();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ScoreEntry> action) {
+            while (position < limit) {
+                ScoreEntry entry = parseRecord();
+                if (entry != null) {
+                    action.accept(entry);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void skipRecord() {
+            while (!readField()) {
+                // Skip every field of the record
+            }
+        }
+
+        /**
+         * Parses the record at the current position and moves past it.
+         * Fields after the fifth are ignored.
+         * @return the entry, or null if the record is malformed
+         */
+        ScoreEntry parseRecord() {
+            String player = null;
+            String opponent = null;
+            String result = null;
+            int moves = -1;
+            LocalDateTime timestamp = null;
+            int index = 0;
+            boolean recordEnded;
+            do {
+                recordEnded = readField();
+                switch (index++) {
+                    case 0: player = fieldString(); break;
+                    case 1: opponent = fieldString(); break;
+                    case 2: result = parseResult(); break;
+                    case 3: moves = parseMoves(); break;
+                    case 4: timestamp = parseTimestamp(); break;
+                    default: break;
+                }
+            } while (!recordEnded);
+
+            if (index < 5 || moves < 0 || timestamp == null) {
+                return null;
+            }
+            return new ScoreEntry(player, opponent, result, moves, timestamp);
+        }
+
+        /**
+         * Reads one field into the field buffer, removing quotes.
+         * @return true if it was the last field of its record
+         */
+        private boolean readField() {
+            fieldLength = 0;
+            int quotedLength = 0;
+            if (position < limit && bytes.get(position) == '"') {
+                position++;
+                while (position < limit) {
+                    byte b = bytes.get(position++);
+                    if (b != '"') {
+                        append(b);
+                    } else if (position < limit && bytes.get(position) == '"') {
+                        append(b); // Doubled quote
+                        position++;
+                    } else {
+                        break; // Closing quote
+                    }
+                }
+                quotedLength = fieldLength;
+            }
+            while (position < limit) {
+                byte b = bytes.get(position++);
+                if (b == ',') {
+                    return false;
+                }
+                if (b == '\n') {
+                    break;
+                }
+                append(b);
+            }
+            // Drop the carriage return of a CRLF line ending
+            if (fieldLength > quotedLength && field[fieldLength - 1] == '\r') {
+                fieldLength--;
+            }
+            return true;
+        }
+
+        private void append(byte b) {
+            if (fieldLength == field.length) {
+                field = Arrays.copyOf(field, fieldLength * 2);
+            }
+            field[fieldLength++] = b;
+        }
+
+        private String fieldString() {
+            return new String(field, 0, fieldLength, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Returns the shared constant for the usual results.
+         */
+        private String parseResult() {
+            if (fieldEquals(WIN)) return "WIN";
+            if (fieldEquals(LOSS)) return "LOSS";
+            if (fieldEquals(TIE)) return "TIE";
+            return fieldString();
+        }
+
+        private boolean fieldEquals(byte[] expected) {
+            return Arrays.equals(field, 0, fieldLength, expected, 0, expected.length);
+        }
+
+        /**
+         * @return the move count, or -1 if the field is not a number
+         */
+        private int parseMoves() {
+            if (fieldLength == 0 || fieldLength > 9) {
+                return -1;
+            }
+            return digits(0, fieldLength);
+        }
+
+        /**
+         * Parses "yyyy-MM-dd HH:mm:ss".
+         * @return the timestamp, or null if the field is not a valid one
+         */
+        private LocalDateTime parseTimestamp() {
+            if (fieldLength != TIMESTAMP_LENGTH
+                    || field[4] != '-' || field[7] != '-' || field[10] != ' '
+                    || field[13] != ':' || field[16] != ':') {
+                return null;
+            }
+            int year = digits(0, 4);
+            int month = digits(5, 7);
+            int day = digits(8, 10);
+            int hour = digits(11, 13);
+            int minute = digits(14, 16);
+            int second = digits(17, 19);
+            if (year < 0 || month < 1 || month > 12 || day < 1
+                    || day > Month.of(month).length(Year.isLeap(year))
+                    || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return null;
+            }
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        }
+
+        /**
+         * @return the decimal value of field[from, to), or -1 if it has a non-digit
+         */
+        private int digits(int from, int to) {
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = field[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -72,25 +72,13 @@ public class ScoreEntry {
     }
 
     /**
-     * Creates a ScoreEntry from a CSV line.
+     * Creates a ScoreEntry from a CSV line. Quoted names may contain
+     * commas, quotes and line breaks.
      * @param csvLine the CSV line to parse
      * @return a new ScoreEntry, or null if parsing fails
      */
     public static ScoreEntry fromCsv(String csvLine) {
-        try {
-            String[] parts = csvLine.split(",");
-            if (parts.length < 5) return null;
-            
-            String playerName = unescapeCsv(parts[0]);
-            String opponentName = unescapeCsv(parts[1]);
-            String result = parts[2];
-            int moveCount = Integer.parseInt(parts[3]);
-            LocalDateTime timestamp = LocalDateTime.parse(parts[4], DATE_FORMAT);
-            
-            return new ScoreEntry(playerName, opponentName, result, moveCount, timestamp);
-        } catch (Exception e) {
-            return null; // Parsing failed
-        }
+        return (csvLine == null) ? null : ScoreCsvReader.parse(csvLine);
     }
 
     /**
@@ -103,16 +91,6 @@ public class ScoreEntry {
         return value;
     }
 
-    /**
-     * Unescapes CSV format back to original string.
-     */
-    private static String unescapeCsv(String value) {
-        if (value.startsWith("\"") && value.endsWith("\"")) {
-            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
-        }
-        return value;
-    }
-
     @Override
     public String toString() {
         return String.format("%s vs %s: %s (%d moves) - %s",
@@ -1,17 +1,85 @@
 package tictactoe;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Manages game score persistence to a CSV file.
  * Handles file creation, appending results, and loading history.
+ *
+ * The file is kept open as one append channel, and entries are written by
+ * a background thread that commits everything queued since its last write
+ * in a single write (group commit). When writes happen, and whether they
+ * are forced to disk, is set by a DurabilityPolicy. close(), which also
+ * runs from a shutdown hook, writes every queued entry before returning.
+ * A failed write only fails the entries in that batch: appenders waiting
+ * for them get the error (or the next flush(), if nobody waited), and the
+ * writer carries on with the next batch.
+ *
+ * Statistics come from a ScoreStats aggregate that is built from the file
+ * on first use and then updated by every append(), so queries cost the
+ * same however long the history is. The aggregate is only rebuilt if the
+ * file changes behind the manager's back (its size or modification time
+ * no longer match the last write).
+ *
+ * A file name ending in ".bin" selects the binary format of
+ * BinaryScoreLog instead of CSV; everything else works the same.
+ *
+ * The Leaderboard is kept up to date the same way. It is saved next to
+ * the scores ("scores.csv.leaderboard") on close() and after it is
+ * loaded, so a restart only replays the games added since then.
  */
 public class ScoreManager {
-    
+
+    private static final String HEADER = "Player,Opponent,Result,Moves,Timestamp";
+    private static final String NEWLINE = System.lineSeparator();
+
     private Path filePath;
+    private final DurabilityPolicy policy;
+    private final BinaryScoreLog binaryLog; // null for CSV
+    private final Path checkpointPath;
+
+    // Queue shared between append() and the writer thread. Entries join the
+    // pending batch; the writer swaps in an empty one and writes the full one.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition entriesWritten = lock.newCondition();
+    private Batch pending = new Batch();
+    private Batch inFlight; // Being written, or null
+    private IOException unreportedError; // A failed batch nobody waited for
+    private long firstPendingNanos;
+    private boolean flushRequested;
+    private boolean closed;
+    private Thread writer;
+    private Thread shutdownHook;
+
+    // Only touched while holding channelLock. knownSize and knownModified
+    // describe the file as this manager last left it (size -1: no file).
+    private final Object channelLock = new Object();
+    private FileChannel channel;
+    private long knownSize = -1;
+    private long knownModified;
+
+    // Totals for getStats() (null until first needed) and the leaderboard.
+    // Guarded by statsLock, which append() also holds while queueing so no
+    // entry is missed or counted twice during a rebuild.
+    private final Object statsLock = new Object();
+    private ScoreStats stats;
+    private final Leaderboard leaderboard = new Leaderboard();
+    private boolean leaderboardLoaded;
+    private volatile boolean statsStale;
 
     /**
      * Creates a ScoreManager with the default scores.csv file.
@@ -21,39 +89,321 @@ public class ScoreManager {
     }
 
     /**
-     * Creates a ScoreManager with a specific file path.
+     * Creates a ScoreManager with a specific file path, writing each entry
+     * before append() returns (without forcing it to disk).
      * @param filePath the path to the scores file
      */
     public ScoreManager(Path filePath) {
+        this(filePath, DurabilityPolicy.everyEntry(false));
+    }
+
+    /**
+     * Creates a ScoreManager with a specific file path and durability policy.
+     * @param filePath the path to the scores file
+     * @param policy when queued entries are written and forced to disk
+     */
+    public ScoreManager(Path filePath, DurabilityPolicy policy) {
         this.filePath = filePath;
+        this.policy = policy;
+        this.binaryLog = BinaryScoreLog.isBinaryPath(filePath) ? new BinaryScoreLog(filePath) : null;
+        this.checkpointPath = filePath.resolveSibling(filePath.getFileName() + ".leaderboard");
     }
 
     /**
-     * Ensures the score file exists, creating it if necessary.
-     * @throws IOException if file creation fails
+     * Opens the append channel if needed, writing the CSV header to a new
+     * file. Caller holds channelLock.
+     * @throws IOException if the file cannot be opened
      */
-    private void ensureFileExists() throws IOException {
-        if (!Files.exists(filePath)) {
-            Files.createFile(filePath);
-            // Write CSV header
-            try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-                writer.write("Player,Opponent,Result,Moves,Timestamp");
-                writer.newLine();
+    private FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (channel.size() == 0) {
+                writeFully(channel, HEADER + NEWLINE);
             }
         }
+        return channel;
+    }
+
+    private static void writeFully(FileChannel channel, String text) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
     }
 
     /**
-     * Appends a new score entry to the file.
+     * Appends a new score entry to the file. Depending on the durability
+     * policy this waits for the entry to be written, or only queues it.
      * @param entry the ScoreEntry to save
-     * @throws IOException if writing fails
+     * @throws IOException if writing this entry fails, or the manager is closed
+     * @throws IllegalArgumentException if the file is binary and the entry
+     *         does not fit its format
      */
     public void append(ScoreEntry entry) throws IOException {
-        ensureFileExists();
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath, 
-                StandardOpenOption.APPEND)) {
-            writer.write(entry.toCsv());
-            writer.newLine();
+        if (binaryLog != null) {
+            BinaryScoreLog.checkStorable(entry);
+        }
+        Batch batch;
+        synchronized (statsLock) {
+            lock.lock();
+            try {
+                checkWritable();
+                startWriter();
+                if (pending.entries.isEmpty()) {
+                    firstPendingNanos = System.nanoTime();
+                }
+                batch = pending;
+                batch.entries.add(entry);
+                if (batch.entries.size() >= policy.getMaxEntries() || policy.getMaxDelayMillis() > 0) {
+                    workAvailable.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (stats != null) {
+                stats.record(entry);
+            }
+            if (leaderboardLoaded) {
+                leaderboard.record(entry);
+            }
+        }
+        // Wait outside statsLock so other appends can join this commit
+        if (policy.isSynchronous()) {
+            lock.lock();
+            try {
+                awaitWritten(batch);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes every queued entry now, whatever the policy, and waits for it.
+     * @throws IOException if writing fails, or an entry queued without
+     *         waiting could not be saved since the last flush
+     */
+    public void flush() throws IOException {
+        IOException error = writeQueued();
+        if (error != null) {
+            throw new IOException("Could not save scores", error);
+        }
+    }
+
+    /**
+     * Writes every queued entry and waits for it.
+     * @return the error of the last batch, or of an earlier one nobody
+     *         waited for; null if everything was saved
+     */
+    private IOException writeQueued() {
+        lock.lock();
+        try {
+            // Batches are written in order, so waiting for the last one is enough
+            Batch last = pending.entries.isEmpty() ? inFlight : pending;
+            IOException error = null;
+            if (last != null) {
+                if (last == pending) {
+                    flushRequested = true;
+                    workAvailable.signal();
+                }
+                awaitDone(last);
+                error = last.error;
+            }
+            if (error == null) {
+                error = unreportedError;
+            }
+            unreportedError = null;
+            return error;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a batch has been written. Caller holds the lock.
+     * @throws IOException if writing the batch failed
+     */
+    private void awaitWritten(Batch batch) throws IOException {
+        awaitDone(batch);
+        if (batch.error != null) {
+            throw new IOException("Could not save score", batch.error);
+        }
+    }
+
+    /**
+     * Waits until the writer is done with a batch. Caller holds the lock.
+     */
+    private void awaitDone(Batch batch) {
+        boolean interrupted = false;
+        while (!batch.done) {
+            try {
+                entriesWritten.await();
+            } catch (InterruptedException e) {
+                interrupted = true; // Finish waiting; the entry is already queued
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if (closed) {
+            throw new IOException("ScoreManager is closed");
+        }
+    }
+
+    /**
+     * Starts the writer thread and its shutdown hook on first use. Caller holds the lock.
+     */
+    private void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(this::writeLoop, "score-writer");
+        writer.setDaemon(true);
+        writer.start();
+        shutdownHook = new Thread(this::close, "score-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Body of the writer thread: waits until the policy (or flush/close)
+     * calls for a write, then commits everything queued in one go.
+     */
+    private void writeLoop() {
+        lock.lock();
+        try {
+            while (true) {
+                while (!closed && !shouldWrite()) {
+                    long delay = policy.getMaxDelayMillis();
+                    if (delay > 0 && !pending.entries.isEmpty()) {
+                        long waitNanos = firstPendingNanos + TimeUnit.MILLISECONDS.toNanos(delay)
+                            - System.nanoTime();
+                        workAvailable.awaitNanos(Math.max(1, waitNanos));
+                    } else {
+                        workAvailable.await();
+                    }
+                }
+                if (pending.entries.isEmpty()) {
+                    if (closed) {
+                        return;
+                    }
+                    flushRequested = false;
+                    continue;
+                }
+
+                Batch batch = pending;
+                pending = new Batch();
+                inFlight = batch;
+                flushRequested = false;
+
+                lock.unlock();
+                try {
+                    writeBatch(batch.entries);
+                } catch (IOException e) {
+                    batch.error = e;
+                } finally {
+                    lock.lock();
+                }
+
+                batch.done = true;
+                inFlight = null;
+                if (batch.error != null) {
+                    statsStale = true; // The totals count entries that were never saved
+                    if (!policy.isSynchronous()) {
+                        unreportedError = batch.error;
+                    }
+                }
+                entriesWritten.signalAll();
+            }
+        } catch (InterruptedException e) {
+            // Not expected: close() stops the writer by setting closed
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the queued entries are due to be written. Caller holds the lock.
+     */
+    private boolean shouldWrite() {
+        if (pending.entries.isEmpty()) {
+            return false;
+        }
+        if (flushRequested || pending.entries.size() >= policy.getMaxEntries()) {
+            return true;
+        }
+        long delay = policy.getMaxDelayMillis();
+        return delay > 0
+            && System.nanoTime() - firstPendingNanos >= TimeUnit.MILLISECONDS.toNanos(delay);
+    }
+
+    /**
+     * Writes a batch of entries with one write call, forcing it to disk if
+     * the policy asks for it.
+     */
+    private void writeBatch(List<ScoreEntry> entries) throws IOException {
+        if (binaryLog != null) {
+            synchronized (channelLock) {
+                binaryLog.append(entries, policy.isFsync());
+                rememberFileState();
+            }
+            return;
+        }
+        StringBuilder text = new StringBuilder(entries.size() * 64);
+        for (ScoreEntry entry : entries) {
+            text.append(entry.toCsv()).append(NEWLINE);
+        }
+        synchronized (channelLock) {
+            FileChannel out = openChannel();
+            try {
+                writeFully(out, text.toString());
+                if (policy.isFsync()) {
+                    out.force(false);
+                }
+            } catch (IOException e) {
+                // Reopen the file for the next batch rather than reuse a broken channel
+                channel = null;
+                try {
+                    out.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+                throw e;
+            }
+            rememberFileState();
+        }
+    }
+
+    /**
+     * Records the file's current size and modification time as our own.
+     * Caller holds channelLock.
+     */
+    private void rememberFileState() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            knownSize = attributes.size();
+            knownModified = attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            knownSize = -1;
+        }
+    }
+
+    /**
+     * Checks whether someone else has changed the file since we last
+     * wrote or read it.
+     */
+    private boolean fileChangedExternally() {
+        synchronized (channelLock) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+                return attributes.size() != knownSize
+                    || attributes.lastModifiedTime().toMillis() != knownModified;
+            } catch (IOException e) {
+                return knownSize != -1; // Gone, or unreadable
+            }
         }
     }
 
@@ -63,30 +413,139 @@ public class ScoreManager {
      * @throws IOException if reading fails
      */
     public List<ScoreEntry> loadAll() throws IOException {
-        List<ScoreEntry> entries = new ArrayList<>();
-        
+        if (binaryLog != null) {
+            flush(); // Include entries still waiting in the queue
+            return binaryLog.readAll();
+        }
+        return streamAll().collect(Collectors.toList());
+    }
+
+    /**
+     * Returns how many bytes of the file hold complete entries.
+     */
+    private long logSize() throws IOException {
+        long size = Files.exists(filePath) ? Files.size(filePath) : 0;
+        return (binaryLog != null) ? BinaryScoreLog.completeLength(size) : size;
+    }
+
+    /**
+     * Streams all score entries from the file without loading them into
+     * a list first. A CSV file is parsed in chunks, in parallel if the
+     * stream is made parallel.
+     * @return the entries, oldest first
+     * @throws IOException if the file cannot be read
+     */
+    public Stream<ScoreEntry> streamAll() throws IOException {
+        return streamFrom(0);
+    }
+
+    /**
+     * Streams the entries after a byte offset that starts an entry.
+     */
+    private Stream<ScoreEntry> streamFrom(long offset) throws IOException {
+        flush(); // Include entries still waiting in the queue
+        if (binaryLog != null) {
+            return binaryLog.readFrom(offset).stream();
+        }
         if (!Files.exists(filePath)) {
-            return entries; // No scores yet
+            return Stream.empty(); // No scores yet
         }
-        
-        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-            String line;
-            boolean firstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false; // Skip header
-                    continue;
-                }
-                
-                ScoreEntry entry = ScoreEntry.fromCsv(line);
-                if (entry != null) {
-                    entries.add(entry);
-                }
+        return new ScoreCsvReader(filePath, offset).stream();
+    }
+
+    /**
+     * Returns the all-time totals, overall and per opponent.
+     * @return a snapshot of the totals
+     * @throws IOException if the file has to be (re)read and reading fails
+     */
+    public ScoreStats getStats() throws IOException {
+        synchronized (statsLock) {
+            discardIfOutOfDate();
+            if (stats == null) {
+                rebuildStats();
             }
+            return stats.copy();
+        }
+    }
+
+    /**
+     * Drops the totals and leaderboard if a write failed or someone else
+     * changed the file, so they are rebuilt. Caller holds statsLock.
+     */
+    private void discardIfOutOfDate() {
+        if (statsStale || fileChangedExternally()) {
+            stats = null;
+            leaderboardLoaded = false;
+            statsStale = false;
+        }
+    }
+
+    /**
+     * Recomputes the totals from the file. Caller holds statsLock.
+     */
+    private void rebuildStats() throws IOException {
+        ScoreStats fresh;
+        if (binaryLog != null) {
+            flush();
+            fresh = binaryLog.readStats();
+        } else {
+            fresh = streamAll().parallel().collect(ScoreStats::new, ScoreStats::record, ScoreStats::merge);
+        }
+        synchronized (channelLock) {
+            rememberFileState();
+        }
+        stats = fresh;
+    }
+
+    /**
+     * Returns the per-player leaderboard, loading it on first use from its
+     * checkpoint plus the games saved after it. The same object is
+     * returned every time and stays current as entries are appended.
+     * @return the leaderboard
+     * @throws IOException if the file has to be (re)read and reading fails
+     */
+    public Leaderboard getLeaderboard() throws IOException {
+        synchronized (statsLock) {
+            discardIfOutOfDate();
+            if (!leaderboardLoaded) {
+                loadLeaderboard();
+            }
+            return leaderboard;
+        }
+    }
+
+    /**
+     * Restores the leaderboard from its checkpoint and replays the rest of
+     * the file, then checkpoints the result. Caller holds statsLock.
+     */
+    private void loadLeaderboard() throws IOException {
+        flush();
+        long size = logSize();
+        Leaderboard fresh = new Leaderboard();
+        long covered = fresh.loadCheckpoint(checkpointPath, filePath);
+        try (Stream<ScoreEntry> newer = streamFrom(Math.max(covered, 0))) {
+            newer.forEachOrdered(fresh::record);
+        }
+        leaderboard.replaceWith(fresh);
+        synchronized (channelLock) {
+            rememberFileState();
+        }
+        leaderboardLoaded = true;
+        if (covered != size) {
+            saveCheckpoint(size);
+        }
+    }
+
+    /**
+     * Saves the leaderboard as covering the first size bytes of the file.
+     * A failed save only means more of the file is replayed next time.
+     */
+    private void saveCheckpoint(long size) {
+        try {
+            leaderboard.saveCheckpoint(checkpointPath, filePath, size);
+        } catch (IOException e) {
+            System.err.println("Could not save leaderboard checkpoint: " + e.getMessage());
         }
-        
-        return entries;
     }
 
     /**
@@ -95,32 +554,30 @@ public class ScoreManager {
      */
     public String getStatsSummary() {
         try {
-            List<ScoreEntry> entries = loadAll();
+            ScoreStats totals = getStats();
             
-            if (entries.isEmpty()) {
+            if (totals.getTotal() == 0) {
                 return "No games played yet.";
             }
             
-            int wins = 0, losses = 0, ties = 0;
-            for (ScoreEntry entry : entries) {
-                switch (entry.getResult()) {
-                    case "WIN": wins++; break;
-                    case "LOSS": losses++; break;
-                    case "TIE": ties++; break;
-                }
-            }
-            
-            int total = entries.size();
-            double winRate = (total > 0) ? (wins * 100.0 / total) : 0;
-            
-            return String.format(
+            StringBuilder summary = new StringBuilder(String.format(
                 "Games Played: %d\n" +
                 "Wins: %d\n" +
                 "Losses: %d\n" +
                 "Ties: %d\n" +
                 "Win Rate: %.1f%%",
-                total, wins, losses, ties, winRate
-            );
+                totals.getTotal(), totals.getWins(), totals.getLosses(), totals.getTies(),
+                totals.getWinRate()
+            ));
+            if (!totals.getByOpponent().isEmpty()) {
+                summary.append("\n\nBy Opponent:");
+                for (Map.Entry<String, ScoreStats> e : totals.getByOpponent().entrySet()) {
+                    ScoreStats vs = e.getValue();
+                    summary.append(String.format("\n%s: %d-%d-%d (%.1f%%)",
+                        e.getKey(), vs.getWins(), vs.getLosses(), vs.getTies(), vs.getWinRate()));
+                }
+            }
+            return summary.toString();
             
         } catch (IOException e) {
             return "Error loading scores: " + e.getMessage();
@@ -128,12 +585,99 @@ public class ScoreManager {
     }
 
     /**
-     * Clears all saved scores.
+     * Clears all saved scores, including any still queued. Earlier write
+     * errors are forgotten, since the scores they lost are gone either way.
      * @throws IOException if file deletion fails
      */
     public void clearAll() throws IOException {
-        if (Files.exists(filePath)) {
-            Files.delete(filePath);
+        synchronized (statsLock) {
+            writeQueued(); // Errors do not matter; the entries are deleted next
+            synchronized (channelLock) {
+                if (binaryLog != null) {
+                    binaryLog.delete();
+                }
+                if (channel != null) {
+                    channel.close();
+                    channel = null;
+                }
+                if (Files.exists(filePath)) {
+                    Files.delete(filePath);
+                }
+                knownSize = -1;
+            }
+            Files.deleteIfExists(checkpointPath);
+            stats = new ScoreStats();
+            leaderboard.clear();
+            leaderboardLoaded = true;
+            statsStale = false;
         }
     }
+
+    /**
+     * Writes every queued entry, stops the writer thread and closes the
+     * file. Later calls to append() fail. Safe to call more than once.
+     */
+    public void close() {
+        Thread writerThread;
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signal();
+            writerThread = writer;
+        } finally {
+            lock.unlock();
+        }
+        if (writerThread != null) {
+            boolean interrupted = false;
+            while (writerThread.isAlive()) {
+                try {
+                    writerThread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true; // Keep waiting so nothing queued is lost
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (channelLock) {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+                if (binaryLog != null) {
+                    binaryLog.close();
+                }
+            } catch (IOException e) {
+                // Everything was already written
+            }
+            channel = null;
+        }
+        synchronized (statsLock) {
+            if (leaderboardLoaded && !statsStale && !fileChangedExternally()) {
+                try {
+                    saveCheckpoint(logSize());
+                } catch (IOException e) {
+                    // The next start replays the file instead
+                }
+            }
+        }
+        if (shutdownHook != null && Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down
+            }
+        }
+    }
+
+    /**
+     * Entries written to the file together, and how it went.
+     * Guarded by the queue lock.
+     */
+    private static final class Batch {
+        final List<ScoreEntry> entries = new ArrayList<>();
+        boolean done;
+        IOException error;
+    }
 }
@@ -0,0 +1,132 @@
+package tictactoe;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running totals of saved game results: games, wins, losses, ties and win
+ * rate, overall and per opponent. ScoreManager keeps one up to date as
+ * entries are appended, so statistics never require re-reading the file.
+ */
+public class ScoreStats {
+
+    private long total;
+    private long wins;
+    private long losses;
+    private long ties;
+    private final Map<String, ScoreStats> byOpponent;
+
+    /**
+     * Creates empty totals that also break results down by opponent.
+     */
+    public ScoreStats() {
+        this(true);
+    }
+
+    private ScoreStats(boolean perOpponent) {
+        this.byOpponent = perOpponent ? new TreeMap<>() : null;
+    }
+
+    /**
+     * Adds one result to the totals.
+     * @param entry the saved game
+     */
+    void record(ScoreEntry entry) {
+        count(entry.getResult());
+        if (byOpponent != null) {
+            byOpponent.computeIfAbsent(entry.getOpponentName(), name -> new ScoreStats(false))
+                .count(entry.getResult());
+        }
+    }
+
+    /**
+     * Adds results already counted for one opponent.
+     * @param opponentName the opponent
+     * @param wins games won against them
+     * @param losses games lost
+     * @param ties games tied
+     */
+    void add(String opponentName, long wins, long losses, long ties) {
+        addCounts(wins, losses, ties);
+        if (byOpponent != null) {
+            byOpponent.computeIfAbsent(opponentName, name -> new ScoreStats(false))
+                .addCounts(wins, losses, ties);
+        }
+    }
+
+    /**
+     * Adds another set of totals to these, for combining partial results.
+     * @param other the totals to add
+     */
+    void merge(ScoreStats other) {
+        addCounts(other.wins, other.losses, other.ties);
+        total += other.total - other.wins - other.losses - other.ties;
+        if (byOpponent != null && other.byOpponent != null) {
+            for (Map.Entry<String, ScoreStats> e : other.byOpponent.entrySet()) {
+                byOpponent.computeIfAbsent(e.getKey(), name -> new ScoreStats(false)).merge(e.getValue());
+            }
+        }
+    }
+
+    private void addCounts(long wins, long losses, long ties) {
+        this.total += wins + losses + ties;
+        this.wins += wins;
+        this.losses += losses;
+        this.ties += ties;
+    }
+
+    private void count(String result) {
+        total++;
+        switch (result) {
+            case "WIN": wins++; break;
+            case "LOSS": losses++; break;
+            case "TIE": ties++; break;
+            default: break; // Counted in the total only
+        }
+    }
+
+    /**
+     * Returns an independent copy of these totals.
+     * @return the copy
+     */
+    public ScoreStats copy() {
+        ScoreStats copy = new ScoreStats(byOpponent != null);
+        copy.total = total;
+        copy.wins = wins;
+        copy.losses = losses;
+        copy.ties = ties;
+        if (byOpponent != null) {
+            for (Map.Entry<String, ScoreStats> e : byOpponent.entrySet()) {
+                copy.byOpponent.put(e.getKey(), e.getValue().copy());
+            }
+        }
+        return copy;
+    }
+
+    public long getTotal() { return total; }
+    public long getWins() { return wins; }
+    public long getLosses() { return losses; }
+    public long getTies() { return ties; }
+
+    /**
+     * @return wins as a percentage of all games, or 0 if there are none
+     */
+    public double getWinRate() {
+        return (total > 0) ? (wins * 100.0 / total) : 0;
+    }
+
+    /**
+     * Returns the totals for each opponent, by name.
+     * @return an unmodifiable map, empty for per-opponent totals themselves
+     */
+    public Map<String, ScoreStats> getByOpponent() {
+        return (byOpponent == null) ? Collections.emptyMap() : Collections.unmodifiableMap(byOpponent);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games: %d wins, %d losses, %d ties (%.1f%%)",
+            total, wins, losses, ties, getWinRate());
+    }
+}
@@ -0,0 +1,127 @@
+package tictactoe;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the GameServer's sessions by id and evicts the ones nobody has
+ * used for a while, so abandoned games do not pile up.
+ *
+ * Session ids are random, so a client cannot guess its way into another
+ * client's game.
+ */
+public class SessionRegistry {
+
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService evictor;
+    private final AtomicLong evicted = new AtomicLong();
+
+    /**
+     * Creates a registry that evicts sessions idle for longer than the timeout.
+     * @param idleTimeoutMillis how long a session may go unused, in milliseconds
+     */
+    public SessionRegistry(long idleTimeoutMillis) {
+        if (idleTimeoutMillis < 1) {
+            throw new IllegalArgumentException("Idle timeout must be positive: " + idleTimeoutMillis);
+        }
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Sweeping twice per timeout keeps sessions at most 1.5 timeouts old
+        long period = Math.max(1, idleTimeoutMillis / 2);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates and registers a new session.
+     * @param difficulty the difficulty name
+     * @param strategy the AI's strategy
+     * @return the new session
+     */
+    public GameSession create(String difficulty, ComputerMoveStrategy strategy) {
+        while (true) {
+            long id = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+            GameSession session = new GameSession(id, difficulty, strategy);
+            if (sessions.putIfAbsent(id, session) == null) {
+                return session;
+            }
+        }
+    }
+
+    /**
+     * Looks up a session and marks it as used.
+     * @param id the session id
+     * @return the session, or null if there is none (or it was evicted)
+     */
+    public GameSession get(long id) {
+        GameSession session = sessions.get(id);
+        if (session != null) {
+            session.touch();
+        }
+        return session;
+    }
+
+    /**
+     * Removes a session.
+     * @param id the session id
+     * @return true if the session existed
+     */
+    public boolean remove(long id) {
+        return sessions.remove(id) != null;
+    }
+
+    /**
+     * Removes every session that has been idle longer than the timeout.
+     * Runs periodically on its own; public so callers can force a sweep.
+     * @return the number of sessions removed
+     */
+    public int evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        int removed = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.getLastActiveMillis() < cutoff && sessions.remove(session.getId(), session)) {
+                removed++;
+            }
+        }
+        evicted.addAndGet(removed);
+        return removed;
+    }
+
+    /**
+     * @return the number of live sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * @return the number of sessions evicted for being idle so far
+     */
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    /**
+     * @return the idle timeout in milliseconds
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * Stops the eviction sweeps and drops all sessions.
+     */
+    public void close() {
+        evictor.shutdownNow();
+        sessions.clear();
+    }
+}
@@ -1,7 +1,5 @@
 package tictactoe;
 
-import java.util.List;
-
 /**
  * Smarter AI strategy that follows basic Tic-Tac-Toe tactics:
  * 1. Win if possible
@@ -9,50 +7,61 @@ import java.util.List;
  * 3. Take center if available
  * 4. Take a corner if available
  * 5. Take any available cell
+ *
+ * On the classic board wins and blocks are found from the two sides' cell
+ * masks, one AND per line, and every answer is a shared Move (Move.of()),
+ * so choose() allocates nothing.
  */
 public class SmartMoveStrategy implements ComputerMoveStrategy {
 
+    /** The 8 lines of the classic board as cell masks: rows, columns, diagonals. */
+    private static final int[] CLASSIC_LINES = {
+        0007, 0070, 0700, 0111, 0222, 0444, 0421, 0124
+    };
+
+    /**
+     * Preferred cells in order: center, corners, then edges. Each entry is
+     * a (row, column) pair where 0 is the first index, 1 the middle and 2
+     * the last, so the table fits any board size.
+     */
+    private static final int[][] PREFERRED = {
+        {1, 1},
+        {0, 0}, {0, 2}, {2, 0}, {2, 2},
+        {0, 1}, {1, 0}, {1, 2}, {2, 1}
+    };
+
     @Override
     public Move choose(Board board, char mark) {
         char opponentMark = (mark == Board.X) ? Board.O : Board.X;
         
         // 1. Check if we can win
-        Move winningMove = findWinningMove(board, mark);
-        if (winningMove != null) {
-            return winningMove;
+        int winningCell = findWinningCell(board, mark);
+        if (winningCell >= 0) {
+            return toMove(board, winningCell);
         }
         
         // 2. Block opponent's winning move
-        Move blockingMove = findWinningMove(board, opponentMark);
-        if (blockingMove != null) {
-            return blockingMove;
-        }
-        
-        // 3. Take center if available
-        if (board.isEmpty(1, 1)) {
-            return new Move(1, 1);
-        }
-        
-        // 4. Take a corner if available
-        int[][] corners = {{0, 0}, {0, 2}, {2, 0}, {2, 2}};
-        for (int[] corner : corners) {
-            if (board.isEmpty(corner[0], corner[1])) {
-                return new Move(corner[0], corner[1]);
-            }
+        int blockingCell = findWinningCell(board, opponentMark);
+        if (blockingCell >= 0) {
+            return toMove(board, blockingCell);
         }
         
-        // 5. Take any available edge
-        int[][] edges = {{0, 1}, {1, 0}, {1, 2}, {2, 1}};
-        for (int[] edge : edges) {
-            if (board.isEmpty(edge[0], edge[1])) {
-                return new Move(edge[0], edge[1]);
+        // 3-5. Take the center, then a corner, then an edge
+        int size = board.getSize();
+        int last = size - 1;
+        int mid = last / 2;
+        for (int[] spot : PREFERRED) {
+            int row = (spot[0] == 0) ? 0 : (spot[0] == 1) ? mid : last;
+            int col = (spot[1] == 0) ? 0 : (spot[1] == 1) ? mid : last;
+            if (board.isEmpty(row, col)) {
+                return toMove(board, row * size + col);
             }
         }
         
         // 6. Fallback: take first available cell
-        List<Move> emptyCells = board.getEmptyCells();
-        if (!emptyCells.isEmpty()) {
-            return emptyCells.get(0);
+        int cell = board.nextEmptyCell(0);
+        if (cell >= 0) {
+            return toMove(board, cell);
         }
         
         return null; // No moves available
@@ -60,27 +69,40 @@ public class SmartMoveStrategy implements ComputerMoveStrategy {
 
     /**
      * Finds a winning move for the specified mark, if one exists.
+     * When several cells win, the first in row-major order is returned.
      * @param board the current board
      * @param mark the mark to check for winning moves
-     * @return a Move that would win, or null if none exists
+     * @return the winning cell index (row * size + col), or -1 if none exists
      */
-    private Move findWinningMove(Board board, char mark) {
-        List<Move> emptyCells = board.getEmptyCells();
-        
-        for (Move move : emptyCells) {
-            // Create a copy and test the move
-            Board testBoard = board.copy();
-            try {
-                testBoard.placeMark(move.getRow(), move.getCol(), mark);
-                if (testBoard.checkWin(mark)) {
-                    return move;
+    private int findWinningCell(Board board, char mark) {
+        if (board.isClassic()) {
+            char opponentMark = (mark == Board.X) ? Board.O : Board.X;
+            int mine = board.getMarkMask(mark);
+            int theirs = board.getMarkMask(opponentMark);
+            // A line with two of ours and none of theirs wins at its empty cell
+            int winning = 0;
+            for (int line : CLASSIC_LINES) {
+                if ((theirs & line) == 0 && Integer.bitCount(mine & line) == 2) {
+                    winning |= line & ~mine;
                 }
-            } catch (InvalidMoveException e) {
-                // Should not happen since we're checking empty cells
             }
+            return (winning == 0) ? -1 : Integer.numberOfTrailingZeros(winning);
         }
-        
-        return null;
+
+        int size = board.getSize();
+        for (int cell = board.nextEmptyCell(0); cell >= 0; cell = board.nextEmptyCell(cell + 1)) {
+            if (board.completesLine(cell / size, cell % size, mark)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts a cell index to its shared Move.
+     */
+    private static Move toMove(Board board, int cell) {
+        return Move.of(cell / board.getSize(), cell % board.getSize());
     }
 
     @Override
@@ -4,6 +4,12 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * Enhanced main GUI frame for the Tic-Tac-Toe game.
@@ -24,6 +30,18 @@ public class TicTacToeFrame extends JFrame {
     private JPanel headerPanel;
     private JPanel bottomPanel;
     
+    // AI moves are computed off the Event Dispatch Thread, one at a time
+    private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ai-move");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<Move> pendingAIMove;
+    private Timer aiDisplayTimer;
+
+    // Minimum time the "thinking" status is shown before the AI's move appears
+    private static final int MIN_AI_DISPLAY_MILLIS = 400;
+
     // Score tracking for current session
     private int sessionWins = 0;
     private int sessionLosses = 0;
@@ -42,6 +60,7 @@ public class TicTacToeFrame extends JFrame {
      */
     public TicTacToeFrame() {
         this.game = new TicTacToeGame();
+        this.game.setPonderingEnabled(true);
         this.scoreManager = new ScoreManager();
         this.soundManager = new SoundManager();
         this.playerName = "Player";
@@ -284,6 +303,10 @@ public class TicTacToeFrame extends JFrame {
         viewScoresItem.addActionListener(e -> showScores());
         scoresMenu.add(viewScoresItem);
         
+        JMenuItem leaderboardItem = new JMenuItem("Leaderboard");
+        leaderboardItem.addActionListener(e -> showLeaderboard());
+        scoresMenu.add(leaderboardItem);
+        
         JMenuItem clearScoresItem = new JMenuItem("Clear Statistics");
         clearScoresItem.addActionListener(e -> clearScores());
         scoresMenu.add(clearScoresItem);
@@ -322,11 +345,7 @@ public class TicTacToeFrame extends JFrame {
             updateDisplay();
 
             if (!game.isGameOver()) {
-                // Delay for AI move
-                statusLabel.setText("Computer thinking...");
-                Timer timer = new Timer(400, e -> makeAIMove());
-                timer.setRepeats(false);
-                timer.start();
+                requestAIMove();
             } else {
                 handleGameEnd();
             }
@@ -337,22 +356,118 @@ public class TicTacToeFrame extends JFrame {
     }
 
     /**
-     * Makes the AI move.
+     * Starts computing the AI move on the background executor, from a copy
+     * of the board so the EDT can keep painting and handling input.
      */
-    private void makeAIMove() {
-        try {
-            Move aiMove = game.applyAIMove();
-            if (aiMove != null) {
-                gamePanel.animateMark(aiMove.getRow(), aiMove.getCol(), Board.O);
-                soundManager.playO();
+    private void requestAIMove() {
+        cancelAIMove();
+        statusLabel.setText("Computer thinking...");
+
+        Player aiPlayer = game.getAIPlayer();
+        Board snapshot = game.getBoard().copy();
+        long startTime = System.currentTimeMillis();
+        FutureTask<Move> task = new FutureTask<>(() -> aiPlayer.chooseMove(snapshot)) {
+            @Override
+            protected void done() {
+                SwingUtilities.invokeLater(() -> showAIMoveWhenReady(this, startTime));
             }
-            updateDisplay();
+        };
+        pendingAIMove = task;
+        aiExecutor.execute(task);
+    }
 
-            if (game.isGameOver()) {
-                handleGameEnd();
+    /**
+     * Called on the EDT once the AI has finished. The 400 ms delay is a
+     * minimum display time: a slow search is shown as soon as it is done,
+     * a fast one waits out the rest of the delay.
+     */
+    private void showAIMoveWhenReady(Future<Move> task, long startTime) {
+        if (task != pendingAIMove) {
+            return; // Cancelled by a new game or difficulty change
+        }
+        long remaining = MIN_AI_DISPLAY_MILLIS - (System.currentTimeMillis() - startTime);
+        if (remaining > 0) {
+            aiDisplayTimer = new Timer((int) remaining, e -> makeAIMove(task));
+            aiDisplayTimer.setRepeats(false);
+            aiDisplayTimer.start();
+        } else {
+            makeAIMove(task);
+        }
+    }
+
+    /**
+     * Cancels any AI move that is being computed or waiting to be shown.
+     */
+    private void cancelAIMove() {
+        if (pendingAIMove != null) {
+            pendingAIMove.cancel(true);
+            pendingAIMove = null;
+        }
+        if (aiDisplayTimer != null) {
+            aiDisplayTimer.stop();
+            aiDisplayTimer = null;
+        }
+    }
+
+    /**
+     * Makes the AI move computed by the given task.
+     */
+    private void makeAIMove(Future<Move> task) {
+        if (task != pendingAIMove) {
+            return;
+        }
+        pendingAIMove = null;
+        aiDisplayTimer = null;
+
+        Move chosen;
+        try {
+            chosen = task.get();
+        } catch (ExecutionException e) {
+            System.err.println("AI move failed: " + e.getCause());
+            playFallbackMove();
+            return;
+        } catch (InterruptedException e) {
+            // The task is already done, so get() cannot block
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            showAIMove(game.applyAIMove(chosen));
+        } catch (InvalidMoveException e) {
+            System.err.println("AI chose an invalid move: " + e.getMessage());
+            playFallbackMove();
+        }
+    }
+
+    /**
+     * Shows a move the AI has made and ends the game if it is over.
+     */
+    private void showAIMove(Move aiMove) {
+        if (aiMove != null) {
+            gamePanel.animateMark(aiMove.getRow(), aiMove.getCol(), Board.O);
+            soundManager.playO();
+        }
+        updateDisplay();
+
+        if (game.isGameOver()) {
+            handleGameEnd();
+        }
+    }
+
+    /**
+     * Plays a random move for the AI after its strategy failed, so the
+     * game does not stay stuck on the AI's turn.
+     */
+    private void playFallbackMove() {
+        soundManager.playError();
+        try {
+            Move move = new RandomMoveStrategy().choose(game.getBoard(), TicTacToeGame.AI_MARK);
+            showAIMove(game.applyAIMove(move));
+            if (!game.isGameOver()) {
+                statusLabel.setText("Computer error - it played a random move. Your move");
             }
         } catch (InvalidMoveException e) {
-            soundManager.playError();
+            // Not the AI's turn after all, so nothing is waiting on it
         }
     }
 
@@ -435,6 +550,7 @@ public class TicTacToeFrame extends JFrame {
      * Starts a new game.
      */
     private void startNewGame() {
+        cancelAIMove();
         game.reset();
         gamePanel.reset();
         gamePanel.setBoard(game.getBoard());
@@ -589,6 +705,33 @@ public class TicTacToeFrame extends JFrame {
             JOptionPane.INFORMATION_MESSAGE);
     }
 
+    /**
+     * Shows the ten highest-rated players.
+     */
+    private void showLeaderboard() {
+        String text;
+        try {
+            List<PlayerStanding> top = scoreManager.getLeaderboard().top(10);
+            if (top.isEmpty()) {
+                text = "No games played yet.";
+            } else {
+                StringBuilder lines = new StringBuilder();
+                for (int i = 0; i < top.size(); i++) {
+                    PlayerStanding p = top.get(i);
+                    lines.append(String.format("%d. %s - %.0f (%d-%d-%d)%n",
+                        i + 1, p.getName(), p.getRating(), p.getWins(), p.getLosses(), p.getTies()));
+                }
+                text = lines.toString().trim();
+            }
+        } catch (IOException e) {
+            text = "Error loading scores: " + e.getMessage();
+        }
+        JOptionPane.showMessageDialog(this,
+            text,
+            "Leaderboard (Elo Rating)",
+            JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Clears all saved scores.
      */
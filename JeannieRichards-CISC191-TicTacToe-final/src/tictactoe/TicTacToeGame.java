@@ -11,6 +11,7 @@ public class TicTacToeGame {
     private char currentPlayer; // 'X' for human, 'O' for AI
     private boolean gameOver;
     private String statusMessage;
+    private boolean ponderingEnabled;
 
     // Human is always X, AI is always O
     public static final char HUMAN_MARK = Board.X;
@@ -37,6 +38,7 @@ public class TicTacToeGame {
      * Resets the game to initial state.
      */
     public void reset() {
+        stopPondering();
         board.reset();
         currentPlayer = HUMAN_MARK; // Human (X) always goes first
         gameOver = false;
@@ -131,7 +133,24 @@ public class TicTacToeGame {
             throw new InvalidMoveException("Not AI's turn!");
         }
 
-        Move aiMove = aiPlayer.chooseMove(board);
+        return applyAIMove(aiPlayer.chooseMove(board));
+    }
+
+    /**
+     * Applies an AI move that was computed elsewhere, for example on a
+     * background thread from a copy of the board.
+     * @param aiMove the move chosen by the AI player, or null if it found none
+     * @return the Move made by the AI, or null if game is over
+     * @throws InvalidMoveException if the move is invalid or not AI's turn
+     */
+    public Move applyAIMove(Move aiMove) throws InvalidMoveException {
+        if (gameOver) {
+            return null;
+        }
+        if (currentPlayer != AI_MARK) {
+            throw new InvalidMoveException("Not AI's turn!");
+        }
+
         if (aiMove == null) {
             // No valid moves (shouldn't happen if game logic is correct)
             gameOver = true;
@@ -156,9 +175,35 @@ public class TicTacToeGame {
         // Switch back to human's turn
         currentPlayer = HUMAN_MARK;
         statusMessage = "Your move (X)";
+
+        // Use the human's thinking time to prepare the AI's next reply
+        if (ponderingEnabled && aiPlayer instanceof AIPlayer) {
+            ((AIPlayer) aiPlayer).startPondering(board, HUMAN_MARK);
+        }
         return aiMove;
     }
 
+    /**
+     * Turns pondering on or off. When on, the AI searches its replies in the
+     * background while the human is thinking, so its next move is usually ready.
+     * @param enabled true to ponder during the human's turn
+     */
+    public void setPonderingEnabled(boolean enabled) {
+        this.ponderingEnabled = enabled;
+        if (!enabled) {
+            stopPondering();
+        }
+    }
+
+    /**
+     * Cancels the AI's background search, if any, and drops its cached replies.
+     */
+    private void stopPondering() {
+        if (aiPlayer instanceof AIPlayer) {
+            ((AIPlayer) aiPlayer).stopPondering();
+        }
+    }
+
     /**
      * Gets the result of the game for scoring.
      * @return "WIN" if human won, "LOSS" if AI won, "TIE" for draw, null if game not over
@@ -177,6 +222,7 @@ public class TicTacToeGame {
      * @param newAI the new AI player
      */
     public void setAIPlayer(Player newAI) {
+        stopPondering();
         this.aiPlayer = newAI;
     }
 
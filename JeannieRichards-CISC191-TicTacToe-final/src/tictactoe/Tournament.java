@@ -0,0 +1,161 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Headless round-robin self-play between AI strategies, used to calibrate
+ * difficulty levels and to benchmark engine changes.
+ *
+ * Every entrant plays every entrant (itself included) the same number of
+ * games as X and as O. Games are spread over a pool of threads; each
+ * thread has its own MatchEngine, its own strategy instances (made by the
+ * entrants' factories, so random generators are per thread too) and its
+ * own result tallies, which are merged once all games are done.
+ */
+public class Tournament {
+
+    /** Games a thread claims at a time from the shared game counter. */
+    private static final int CHUNK = 256;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Supplier<? extends ComputerMoveStrategy>> factories = new ArrayList<>();
+    private int boardSize = Board.SIZE;
+    private int winLength = Board.SIZE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Adds an entrant. The factory is called once per thread, so strategies
+     * never need to be thread-safe.
+     * @param name the name shown in the results
+     * @param factory creates a new instance of the entrant's strategy
+     */
+    public void addEntrant(String name, Supplier<? extends ComputerMoveStrategy> factory) {
+        if (name == null || factory == null) {
+            throw new IllegalArgumentException("Entrant name and factory are required");
+        }
+        names.add(name);
+        factories.add(factory);
+    }
+
+    /**
+     * Sets the board the games are played on (3x3, three in a row by default).
+     * @param size the number of rows and columns
+     * @param winLength the number of marks in a row needed to win
+     */
+    public void setBoard(int size, int winLength) {
+        new Board(size, winLength); // validates the dimensions
+        this.boardSize = size;
+        this.winLength = winLength;
+    }
+
+    /**
+     * Sets the number of threads games run on (all cores by default).
+     * @param threads the thread count
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Plays the tournament.
+     * @param gamesPerPairing games for each (X entrant, O entrant) pair
+     * @return the combined results
+     * @throws InterruptedException if interrupted while waiting for the games
+     * @throws IllegalStateException if there are no entrants or a game fails
+     */
+    public TournamentResult run(long gamesPerPairing) throws InterruptedException {
+        if (names.isEmpty()) {
+            throw new IllegalStateException("The tournament has no entrants");
+        }
+        if (gamesPerPairing < 1) {
+            throw new IllegalArgumentException("Games per pairing must be at least 1: " + gamesPerPairing);
+        }
+        int n = names.size();
+        long totalGames = gamesPerPairing * n * n;
+        AtomicLong nextGame = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long start = System.nanoTime();
+            List<Future<TournamentResult>> parts = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                parts.add(pool.submit(() -> playGames(nextGame, totalGames, gamesPerPairing)));
+            }
+            TournamentResult result = new TournamentResult(names, threads);
+            for (Future<TournamentResult> part : parts) {
+                result.merge(part.get());
+            }
+            result.setElapsedNanos(System.nanoTime() - start);
+            return result;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A tournament game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Claims chunks of games until none are left and plays them on this
+     * thread. Game g is in pairing g / gamesPerPairing, which numbers the
+     * pairs (x, o) as x * n + o.
+     */
+    private TournamentResult playGames(AtomicLong nextGame, long totalGames, long gamesPerPairing) {
+        int n = names.size();
+        TournamentResult part = new TournamentResult(names, threads);
+        ComputerMoveStrategy[] strategies = new ComputerMoveStrategy[n];
+        MatchEngine engine = new MatchEngine(boardSize, winLength);
+
+        long first;
+        while ((first = nextGame.getAndAdd(CHUNK)) < totalGames) {
+            long end = Math.min(first + CHUNK, totalGames);
+            for (long game = first; game < end; game++) {
+                int pairing = (int) (game / gamesPerPairing);
+                int x = pairing / n;
+                int o = pairing % n;
+                if (strategies[x] == null) {
+                    strategies[x] = factories.get(x).get();
+                }
+                if (strategies[o] == null) {
+                    strategies[o] = factories.get(o).get();
+                }
+                char winner = engine.play(strategies[x], strategies[o], part.latency(x), part.latency(o));
+                part.record(x, o, winner);
+            }
+        }
+        return part;
+    }
+
+    /**
+     * Runs a tournament between the built-in strategies and prints the report.
+     * @param args optional games per pairing (default 1000) and thread count
+     *             (default: all cores)
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Tournament tournament = new Tournament();
+        tournament.addEntrant("Random", RandomMoveStrategy::new);
+        tournament.addEntrant("Smart", SmartMoveStrategy::new);
+        tournament.addEntrant("MCTS-500", () -> new MonteCarloStrategy(500));
+        tournament.addEntrant("Minimax", MinimaxStrategy::new);
+        tournament.addEntrant("Perfect", PerfectPlayStrategy::new);
+
+        long games = (args.length > 0) ? Long.parseLong(args[0]) : 1000;
+        if (args.length > 1) {
+            tournament.setThreads(Integer.parseInt(args[1]));
+        }
+        System.out.print(tournament.run(games));
+    }
+}
@@ -0,0 +1,190 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of a Tournament: wins, losses and draws for every pairing of
+ * entrants (one as X, one as O), move latency per entrant, and overall
+ * throughput.
+ */
+public class TournamentResult {
+
+    private final List<String> names;
+    private final int threads;
+    private final long[][] xWins;
+    private final long[][] oWins;
+    private final long[][] draws;
+    private final LatencyHistogram[] latencies;
+    private long games;
+    private long elapsedNanos;
+
+    /**
+     * Creates an empty result for the given entrants.
+     * @param names the entrant names, in tournament order
+     * @param threads the number of threads the games run on
+     */
+    TournamentResult(List<String> names, int threads) {
+        int n = names.size();
+        this.names = Collections.unmodifiableList(new ArrayList<>(names));
+        this.threads = threads;
+        this.xWins = new long[n][n];
+        this.oWins = new long[n][n];
+        this.draws = new long[n][n];
+        this.latencies = new LatencyHistogram[n];
+        for (int i = 0; i < n; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the outcome of one game.
+     */
+    void record(int x, int o, char winner) {
+        if (winner == Board.X) {
+            xWins[x][o]++;
+        } else if (winner == Board.O) {
+            oWins[x][o]++;
+        } else {
+            draws[x][o]++;
+        }
+        games++;
+    }
+
+    /**
+     * Returns the histogram collecting an entrant's move times.
+     */
+    LatencyHistogram latency(int entrant) {
+        return latencies[entrant];
+    }
+
+    /**
+     * Adds the games recorded in another partial result to this one.
+     */
+    void merge(TournamentResult other) {
+        for (int x = 0; x < names.size(); x++) {
+            for (int o = 0; o < names.size(); o++) {
+                xWins[x][o] += other.xWins[x][o];
+                oWins[x][o] += other.oWins[x][o];
+                draws[x][o] += other.draws[x][o];
+            }
+            latencies[x].merge(other.latencies[x]);
+        }
+        games += other.games;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the entrant names, in tournament order
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the number of games entrant x won playing X against entrant o.
+     * @param x index of the entrant playing X
+     * @param o index of the entrant playing O
+     * @return X wins in that pairing
+     */
+    public long getXWins(int x, int o) {
+        return xWins[x][o];
+    }
+
+    /**
+     * Returns the number of games entrant o won playing O against entrant x.
+     * @param x index of the entrant playing X
+     * @param o index of the entrant playing O
+     * @return O wins in that pairing
+     */
+    public long getOWins(int x, int o) {
+        return oWins[x][o];
+    }
+
+    /**
+     * Returns the number of drawn games with entrant x playing X against entrant o.
+     * @param x index of the entrant playing X
+     * @param o index of the entrant playing O
+     * @return draws in that pairing
+     */
+    public long getDraws(int x, int o) {
+        return draws[x][o];
+    }
+
+    /**
+     * Returns the move times of one entrant, over all its games.
+     * @param entrant the entrant's index
+     * @return the entrant's latency histogram
+     */
+    public LatencyHistogram getLatency(int entrant) {
+        return latencies[entrant];
+    }
+
+    /**
+     * @return the total number of games played
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return the wall-clock time the tournament took, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return games completed per second of wall-clock time
+     */
+    public double getGamesPerSecond() {
+        return (elapsedNanos == 0) ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Formats the results as a text report: throughput, a win/loss/draw
+     * table for every pairing and move latency percentiles per entrant.
+     */
+    @Override
+    public String toString() {
+        int width = 12;
+        for (String name : names) {
+            width = Math.max(width, name.length() + 2);
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d games in %.2f s on %d threads (%.0f games/s)%n",
+            games, elapsedNanos / 1e9, threads, getGamesPerSecond()));
+
+        sb.append(String.format("%nX wins / O wins / draws (rows play X, columns play O)%n"));
+        sb.append(String.format("%-" + width + "s", ""));
+        for (String name : names) {
+            sb.append(String.format("%" + width + "s", name));
+        }
+        sb.append(String.format("%n"));
+        for (int x = 0; x < names.size(); x++) {
+            sb.append(String.format("%-" + width + "s", names.get(x)));
+            for (int o = 0; o < names.size(); o++) {
+                sb.append(String.format("%" + width + "s",
+                    xWins[x][o] + "/" + oWins[x][o] + "/" + draws[x][o]));
+            }
+            sb.append(String.format("%n"));
+        }
+
+        sb.append(String.format("%nMove latency in microseconds%n"));
+        sb.append(String.format("%-" + width + "s%12s%10s%10s%10s%10s%10s%10s%n",
+            "", "moves", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (int i = 0; i < names.size(); i++) {
+            LatencyHistogram latency = latencies[i];
+            sb.append(String.format("%-" + width + "s%12d%10.1f%10.1f%10.1f%10.1f%10.1f%10.1f%n",
+                names.get(i), latency.getCount(), latency.getMean() / 1e3,
+                latency.percentile(50) / 1e3, latency.percentile(90) / 1e3,
+                latency.percentile(99) / 1e3, latency.percentile(99.9) / 1e3,
+                latency.getMax() / 1e3));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package tictactoe;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of searched positions for MinimaxStrategy, keyed by
+ * Board.canonicalKey() so that all 8 symmetric versions of a position
+ * share one entry.
+ *
+ * Each entry packs a bound type and a score into a single int. Scores are
+ * stored from X's point of view and relative to the stored position
+ * (plies to the end of the game rather than plies from the root), so an
+ * entry is valid whichever side the AI plays and wherever the position
+ * appears in the tree.
+ *
+ * The table is safe to share between threads: an entry is one atomic int,
+ * so readers see either the old or the new entry, never a mix.
+ */
+public class TranspositionTable {
+
+    /** The stored score is exact. */
+    public static final int EXACT = 1;
+    /** The true score is at least the stored score. */
+    public static final int LOWER_BOUND = 2;
+    /** The true score is at most the stored score. */
+    public static final int UPPER_BOUND = 3;
+
+    private static final int KEY_SPACE = 1 << (2 * Board.SIZE * Board.SIZE);
+
+    // 0 means empty; otherwise (bound << 8) | (score & 0xFF)
+    private final AtomicIntegerArray entries = new AtomicIntegerArray(KEY_SPACE);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Looks up a position.
+     * @param key the canonical position key
+     * @return the packed entry, or 0 if the position has not been stored
+     */
+    public int probe(int key) {
+        int entry = entries.get(key);
+        if (entry == 0) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Stores a search result for a position.
+     * @param key the canonical position key
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param score the score relative to the position, from X's point of view
+     */
+    public void store(int key, int bound, int score) {
+        entries.set(key, (bound << 8) | (score & 0xFF));
+    }
+
+    /**
+     * @param entry a packed entry returned by probe()
+     * @return the bound type of the entry
+     */
+    public static int boundOf(int entry) {
+        return entry >>> 8;
+    }
+
+    /**
+     * @param entry a packed entry returned by probe()
+     * @return the stored score of the entry
+     */
+    public static int scoreOf(int entry) {
+        return (byte) entry;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, 0);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * @return number of probes that found an entry
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of probes that found nothing
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "TranspositionTable(hits=" + getHits() + ", misses=" + getMisses() + ")";
+    }
+}